@@ -0,0 +1,67 @@
+package com.lq.horizontalwheelview;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 收集基准测试的耗时样本，统计后写成JSON，
+ * 文件位于 getExternalFilesDir("benchmark") 下，可以用 adb pull 取出来和上一个版本对比。
+ */
+final class BenchmarkReport {
+
+    private static final String TAG = "WheelBenchmark";
+
+    private final String mName;
+    private final List<String> mEntries = new ArrayList<String>();
+
+    BenchmarkReport(String name) {
+        mName = name;
+    }
+
+    /** 记录一组样本，单位纳秒 */
+    void add(String benchmark, String params, long[] samplesNs) {
+        long[] sorted = samplesNs.clone();
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (long s : sorted) {
+            sum += s;
+        }
+        String entry = String.format(Locale.US,
+                "{\"benchmark\":\"%s\",\"params\":\"%s\",\"count\":%d,\"minNs\":%d,\"medianNs\":%d,"
+                        + "\"p90Ns\":%d,\"maxNs\":%d,\"meanNs\":%d}",
+                benchmark, params, sorted.length, sorted[0], sorted[sorted.length / 2],
+                sorted[(int)(sorted.length * 0.9)], sorted[sorted.length - 1], sum / sorted.length);
+        Log.i(TAG, entry);
+        mEntries.add(entry);
+    }
+
+    File write(Context context) throws IOException {
+        File dir = context.getExternalFilesDir("benchmark");
+        if (dir == null) {
+            dir = context.getFilesDir();
+        }
+        File file = new File(dir, mName + ".json");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write("[\n");
+            for (int i = 0; i < mEntries.size(); i++) {
+                writer.write("  " + mEntries.get(i) + (i < mEntries.size() - 1 ? ",\n" : "\n"));
+            }
+            writer.write("]\n");
+        } finally {
+            writer.close();
+        }
+        Log.i(TAG, "results written to " + file);
+        return file;
+    }
+}
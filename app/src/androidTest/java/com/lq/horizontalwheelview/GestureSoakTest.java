@@ -0,0 +1,121 @@
+package com.lq.horizontalwheelview;
+
+import android.content.Context;
+import android.graphics.PixelFormat;
+import android.media.Image;
+import android.media.ImageReader;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.support.test.InstrumentationRegistry;
+import android.util.Log;
+import android.view.View;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 在设备上按不同刷新率回放同一段来回拖动，记录掉帧数和回调次数。
+ * 回放在主线程上进行，开启惯性滚动，每帧画到硬件加速的Surface上，和真实的绘制路径一致。
+ * 回放结果与刷新率无关，最终角度应当一致。
+ */
+public class GestureSoakTest {
+
+    private static final String TAG = "WheelBenchmark";
+    private static final int WIDTH = 1080;
+
+    /** 取走并丢弃画好的帧，避免Surface的缓冲区用完 */
+    private HandlerThread mConsumerThread;
+
+    @Before
+    public void setUp() {
+        // lockHardwareCanvas 从API 23开始提供
+        Assume.assumeTrue(Build.VERSION.SDK_INT >= Build.VERSION_CODES.M);
+        mConsumerThread = new HandlerThread("soak-consumer");
+        mConsumerThread.start();
+    }
+
+    @After
+    public void tearDown() {
+        if (mConsumerThread != null) {
+            mConsumerThread.quitSafely();
+        }
+    }
+
+    @Test
+    public void replay_atDifferentFrameRates() {
+        final GestureTrace trace = buildSwipes();
+        float expected = Float.NaN;
+        for (final float frameRate : new float[]{60, 90, 120, 240}) {
+            final GestureReplayer.Result[] result = new GestureReplayer.Result[1];
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    result[0] = replay(trace, frameRate);
+                }
+            });
+            Log.i(TAG, "soak " + frameRate + "Hz: " + result[0]);
+            if (Float.isNaN(expected)) {
+                expected = result[0].getFinalProgress();
+            }
+            assertEquals(expected, result[0].getFinalProgress(), 0f);
+        }
+    }
+
+    private GestureReplayer.Result replay(GestureTrace trace, float frameRate) {
+        HorizontalWheelView view = createView();
+        ImageReader reader = ImageReader.newInstance(view.getWidth(), view.getHeight(), PixelFormat.RGBA_8888, 3);
+        reader.setOnImageAvailableListener(new ImageReader.OnImageAvailableListener() {
+            @Override
+            public void onImageAvailable(ImageReader reader) {
+                Image image = reader.acquireLatestImage();
+                if (image != null) {
+                    image.close();
+                }
+            }
+        }, new Handler(mConsumerThread.getLooper()));
+        try {
+            GestureReplayer replayer = new GestureReplayer(trace);
+            replayer.setFrameRate(frameRate);
+            return replayer.replay(new WheelReplayTarget(view, reader.getSurface()));
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static HorizontalWheelView createView() {
+        Context context = InstrumentationRegistry.getTargetContext();
+        HorizontalWheelView view = new HorizontalWheelView(context);
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.AT_MOST));
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+        return view;
+    }
+
+    /**
+     * 10次来回拖动，240Hz的触摸采样，每4个采样组成一个move事件。
+     * 每次松手后停1秒，惯性滚动和回弹在下一次按下前结束，结果不受回放时机影响
+     */
+    private static GestureTrace buildSwipes() {
+        GestureTrace trace = new GestureTrace();
+        long time = 0;
+        for (int swipe = 0; swipe < 10; swipe++) {
+            float x = WIDTH / 2f;
+            trace.add(GestureTrace.TYPE_DOWN, time, x);
+            for (int i = 1; i <= 240; i++) {
+                time += 4;
+                // 越拖越快，松手时还有速度，会触发惯性滚动
+                x += (float)Math.sin(i * Math.PI / 480) * (swipe % 2 == 0 ? 2 : -1.5f);
+                trace.add(i % 4 == 0 ? GestureTrace.TYPE_MOVE : GestureTrace.TYPE_HISTORY, time, x);
+            }
+            time += 4;
+            trace.add(GestureTrace.TYPE_UP, time, x);
+            time += 1000;
+        }
+        return trace;
+    }
+}
@@ -0,0 +1,116 @@
+package com.lq.horizontalwheelview;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.view.MotionEvent;
+import android.view.View;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * 在设备上测量 HorizontalWheelView 的 onDraw 耗时和 touch→draw 的耗时，
+ * 覆盖不同的view宽度和刻度密度，结果写成JSON供版本间对比。
+ */
+@RunWith(Parameterized.class)
+public class HorizontalWheelViewBenchmark {
+
+    private static final int WARM_UP = 50;
+    private static final int SAMPLES = 300;
+
+    private static final BenchmarkReport sReport = new BenchmarkReport("HorizontalWheelViewBenchmark");
+
+    @Parameterized.Parameters(name = "width={0},step={1}")
+    public static Collection<Object[]> params() {
+        return Arrays.asList(new Object[][]{
+                {480, 4f}, {1080, 4f}, {1440, 4f},
+                {1080, 0.5f}, {1080, 0.1f}});
+    }
+
+    private final int mWidth;
+    /** 刻度间隔，越小刻度越多 */
+    private final float mStep;
+    private HorizontalWheelView mView;
+    private Canvas mCanvas;
+
+    public HorizontalWheelViewBenchmark(int width, float step) {
+        mWidth = width;
+        mStep = step;
+    }
+
+    private String describe() {
+        return "width=" + mWidth + ",step=" + mStep;
+    }
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getTargetContext();
+        mView = new HorizontalWheelView(context);
+        mView.setFlingEnabled(false);
+        mView.setCalibrationStep(mStep, 10);
+        mView.measure(View.MeasureSpec.makeMeasureSpec(mWidth, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(mWidth, View.MeasureSpec.AT_MOST));
+        mView.layout(0, 0, mView.getMeasuredWidth(), mView.getMeasuredHeight());
+        Bitmap bitmap = Bitmap.createBitmap(mView.getWidth(), mView.getHeight(), Bitmap.Config.ARGB_8888);
+        mCanvas = new Canvas(bitmap);
+        // 几何数据和共享资源在上面layout时已经初始化，这里先画一帧，第一次绘制的开销不计入采样
+        mView.draw(mCanvas);
+    }
+
+    @AfterClass
+    public static void writeReport() throws Exception {
+        sReport.write(InstrumentationRegistry.getTargetContext());
+    }
+
+    @Test
+    public void onDraw() {
+        long[] samples = new long[SAMPLES];
+        for (int i = -WARM_UP; i < SAMPLES; i++) {
+            mView.setProgress((i % 90) - 45);
+            long start = System.nanoTime();
+            mView.draw(mCanvas);
+            long cost = System.nanoTime() - start;
+            if (i >= 0) {
+                samples[i] = cost;
+            }
+        }
+        sReport.add("onDraw", describe(), samples);
+    }
+
+    @Test
+    public void touchToDraw() {
+        long downTime = SystemClock.uptimeMillis();
+        float y = mView.getHeight() / 2f;
+        float x = mWidth / 2f;
+        MotionEvent event = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, y, 0);
+        mView.dispatchTouchEvent(event);
+        event.setAction(MotionEvent.ACTION_MOVE);
+        float step = mWidth / 120f;
+        long[] samples = new long[SAMPLES];
+        for (int i = -WARM_UP; i < SAMPLES; i++) {
+            // 来回拖动
+            x += (i & 64) == 0 ? step : -step;
+            event.setLocation(x, y);
+            long start = System.nanoTime();
+            mView.dispatchTouchEvent(event);
+            mView.draw(mCanvas);
+            long cost = System.nanoTime() - start;
+            if (i >= 0) {
+                samples[i] = cost;
+            }
+        }
+        event.setAction(MotionEvent.ACTION_UP);
+        mView.dispatchTouchEvent(event);
+        event.recycle();
+        sReport.add("touchToDraw", describe(), samples);
+    }
+}
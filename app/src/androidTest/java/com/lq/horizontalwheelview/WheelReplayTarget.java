@@ -0,0 +1,91 @@
+package com.lq.horizontalwheelview;
+
+import android.annotation.TargetApi;
+import android.graphics.Canvas;
+import android.os.Build;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.Surface;
+
+/**
+ * 把 {@link GestureReplayer} 的事件转成 MotionEvent 交给 {@link HorizontalWheelView}，
+ * 每帧先推进惯性滚动和回弹，再把view画到硬件加速的Surface上。view需要已经完成布局，
+ * 回放要在主线程上进行，回放期间主线程被占用，动画由这里逐帧推进。
+ * 回调计数通过设置 OnSeekBarChangeListener 实现，会替换掉view原来的listener。
+ */
+@TargetApi(Build.VERSION_CODES.M)
+final class WheelReplayTarget implements GestureReplayer.Target, HorizontalWheelView.OnSeekBarChangeListener {
+
+    private final HorizontalWheelView mView;
+    private final Surface mSurface;
+    /** 轨迹时间0对应的uptime，事件时间与 SystemClock 一致，输入外推才能算出正确的延迟 */
+    private long mBaseTime = -1;
+    private long mDownTime;
+    private int mCallbackCount;
+
+    WheelReplayTarget(HorizontalWheelView view, Surface surface) {
+        mView = view;
+        mSurface = surface;
+        view.setOnSeekBarChangeListener(this);
+    }
+
+    @Override
+    public void dispatch(GestureTrace trace, int first, int last, long timeMs) {
+        if (mBaseTime < 0) {
+            mBaseTime = SystemClock.uptimeMillis() - timeMs;
+        }
+        int type = trace.getType(last);
+        if (type == GestureTrace.TYPE_DOWN) {
+            mDownTime = mBaseTime + timeMs;
+        }
+        float y = mView.getHeight() / 2f;
+        // 历史采样的时间按回放速度等比例换算
+        double scale = trace.getTime(last) == 0 ? 1 : (double)timeMs / trace.getTime(last);
+        MotionEvent event = MotionEvent.obtain(mDownTime, scaleTime(trace, first, last, timeMs, scale),
+                type, trace.getX(first), y, 0);
+        for (int i = first + 1; i <= last; i++) {
+            event.addBatch(scaleTime(trace, i, last, timeMs, scale), trace.getX(i), y, 1, 1, 0);
+        }
+        mView.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    private long scaleTime(GestureTrace trace, int index, int last, long timeMs, double scale) {
+        return mBaseTime + (index == last ? timeMs : Math.round(trace.getTime(index) * scale));
+    }
+
+    @Override
+    public boolean drawFrame(long frameTimeMs) {
+        boolean animating = mView.doAnimationFrame(System.nanoTime());
+        Canvas canvas = mSurface.lockHardwareCanvas();
+        try {
+            mView.draw(canvas);
+        } finally {
+            mSurface.unlockCanvasAndPost(canvas);
+        }
+        return animating;
+    }
+
+    @Override
+    public int getCallbackCount() {
+        return mCallbackCount;
+    }
+
+    @Override
+    public float getProgress() {
+        return mView.getProgress();
+    }
+
+    @Override
+    public void onProgressChanged(HorizontalWheelView seekBar, float progress, boolean fromUser) {
+        mCallbackCount++;
+    }
+
+    @Override
+    public void onStartTrackingTouch(HorizontalWheelView seekBar) {
+    }
+
+    @Override
+    public void onStopTrackingTouch(HorizontalWheelView seekBar) {
+    }
+}
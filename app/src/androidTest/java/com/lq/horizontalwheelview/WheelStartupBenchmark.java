@@ -0,0 +1,78 @@
+package com.lq.horizontalwheelview;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.support.test.InstrumentationRegistry;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+/**
+ * 在设备上测量圆盘从inflate到第一次绘制完成的耗时。
+ * 进程内的第一个圆盘需要查询字体、生成遮罩和字形图集，单独记为first-in-process；
+ * 之后的圆盘复用共享资源，记为warm。first-in-process不是进程冷启动：
+ * 类加载、系统字体缓存和同一进程中先运行的测试留下的共享资源都不会被清掉。结果和 {@link HorizontalWheelViewBenchmark} 写在同一个目录下。
+ */
+public class WheelStartupBenchmark {
+
+    private static final int SAMPLES = 100;
+    private static final int WIDTH = 1080;
+
+    private static final BenchmarkReport sReport = new BenchmarkReport("WheelStartupBenchmark");
+
+    /** 进程内第一次inflate到绘制的耗时，构造时不再查询字体，所以不受 constructOnly 先运行的影响 */
+    private static long sFirstNs;
+
+    @AfterClass
+    public static void writeReport() throws Exception {
+        sReport.add("inflateToFirstDraw", "first-in-process", new long[]{sFirstNs});
+        sReport.write(InstrumentationRegistry.getTargetContext());
+    }
+
+    @Test
+    public void inflateToFirstDraw() {
+        Context context = InstrumentationRegistry.getTargetContext();
+        LayoutInflater inflater = LayoutInflater.from(context);
+        Bitmap bitmap = Bitmap.createBitmap(WIDTH, WIDTH, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        long[] samples = new long[SAMPLES];
+        for (int i = -1; i < SAMPLES; i++) {
+            long cost = inflateAndDraw(inflater, canvas);
+            if (i < 0) {
+                sFirstNs = cost;
+            } else {
+                samples[i] = cost;
+            }
+        }
+        bitmap.recycle();
+        sReport.add("inflateToFirstDraw", "warm", samples);
+    }
+
+    @Test
+    public void constructOnly() {
+        Context context = InstrumentationRegistry.getTargetContext();
+        long[] samples = new long[SAMPLES];
+        for (int i = -1; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            new HorizontalWheelView(context);
+            long cost = System.nanoTime() - start;
+            if (i >= 0) {
+                samples[i] = cost;
+            }
+        }
+        sReport.add("construct", "", samples);
+    }
+
+    private static long inflateAndDraw(LayoutInflater inflater, Canvas canvas) {
+        long start = System.nanoTime();
+        View root = inflater.inflate(R.layout.activity_main, null, false);
+        root.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY));
+        root.layout(0, 0, root.getMeasuredWidth(), root.getMeasuredHeight());
+        root.draw(canvas);
+        return System.nanoTime() - start;
+    }
+}
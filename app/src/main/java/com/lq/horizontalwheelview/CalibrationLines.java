@@ -0,0 +1,67 @@
+package com.lq.horizontalwheelview;
+
+/**
+ * 刻度线段的端点缓冲区，格式为 drawLines 需要的 [x0, y0, x1, y1, ...]。
+ * 缓冲区重复使用，刻度位置和线段的y坐标都没变时不再重新填充。
+ */
+final class CalibrationLines {
+
+    private float[] mPoints = new float[0];
+    /** 有效的float个数，每个刻度4个 */
+    private int mPointCount;
+
+    /** 上一次填充时的几何版本和y坐标 */
+    private int mVersion = -1;
+    private float mStartY;
+    private float mEndY;
+    private float mMinorInset;
+
+    /**
+     * 根据可见刻度更新端点
+     *
+     * @param minorInset 短刻度两端各缩进的长度
+     * @return 是否重新填充了缓冲区
+     */
+    boolean update(WheelGeometry geometry, float startY, float endY, float minorInset) {
+        int version = geometry.getVisibleVersion();
+        if (version == mVersion && startY == mStartY && endY == mEndY && minorInset == mMinorInset) {
+            return false;
+        }
+        int count = geometry.getVisibleCount();
+        if (mPoints.length < count * 4) {
+            mPoints = new float[geometry.getVisibleCapacity() * 4];
+        }
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            float x = geometry.getVisibleX(i);
+            float inset = geometry.isVisibleMajor(i) ? 0 : minorInset;
+            mPoints[n++] = x;
+            mPoints[n++] = startY + inset;
+            mPoints[n++] = x;
+            mPoints[n++] = endY - inset;
+        }
+        mPointCount = n;
+        mVersion = version;
+        mStartY = startY;
+        mEndY = endY;
+        mMinorInset = minorInset;
+        return true;
+    }
+
+    /** 下次update时强制重新填充 */
+    void invalidate() {
+        mVersion = -1;
+    }
+
+    float[] getPoints() {
+        return mPoints;
+    }
+
+    int getPointCount() {
+        return mPointCount;
+    }
+
+    int getLineCount() {
+        return mPointCount / 4;
+    }
+}
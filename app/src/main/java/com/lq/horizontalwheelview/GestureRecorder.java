@@ -0,0 +1,57 @@
+package com.lq.horizontalwheelview;
+
+import android.view.MotionEvent;
+import android.view.View;
+
+/**
+ * 把view收到的触摸事件录制成 {@link GestureTrace}，包括批量事件中的历史采样。
+ * 通过 {@link View#setOnTouchListener} 设置，总是返回false，不影响view自己处理事件。
+ * 只录制第一根手指，多指按下和抬起不记录。
+ */
+public final class GestureRecorder implements View.OnTouchListener {
+
+    private final GestureTrace mTrace = new GestureTrace();
+    private boolean mRecording = true;
+
+    public void setRecording(boolean recording) {
+        mRecording = recording;
+    }
+
+    public boolean isRecording() {
+        return mRecording;
+    }
+
+    /** 录制到的轨迹，录制过程中会继续增长 */
+    public GestureTrace getTrace() {
+        return mTrace;
+    }
+
+    @Override
+    public boolean onTouch(View v, MotionEvent event) {
+        if (!mRecording) {
+            return false;
+        }
+        int type;
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                type = GestureTrace.TYPE_DOWN;
+                break;
+            case MotionEvent.ACTION_MOVE:
+                type = GestureTrace.TYPE_MOVE;
+                break;
+            case MotionEvent.ACTION_UP:
+                type = GestureTrace.TYPE_UP;
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                type = GestureTrace.TYPE_CANCEL;
+                break;
+            default:
+                return false;
+        }
+        for (int h = 0, size = event.getHistorySize(); h < size; h++) {
+            mTrace.add(GestureTrace.TYPE_HISTORY, event.getHistoricalEventTime(h), event.getHistoricalX(0, h));
+        }
+        mTrace.add(type, event.getEventTime(), event.getX(0));
+        return false;
+    }
+}
@@ -0,0 +1,197 @@
+package com.lq.horizontalwheelview;
+
+import java.util.Locale;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 按vsync节奏回放 {@link GestureTrace}：每一帧先等到这一帧的vsync，送出时间已经到了的事件，再绘制一帧。
+ * 同一帧内的历史采样和它所属的move一起送出，和系统批量分发一样。
+ * 一帧没能在下一个vsync之前画完时记为掉帧，和系统一样跳过错过的vsync，到期的事件留到下一帧送出。
+ * 时钟可以替换成模拟时钟，在JVM上回放时由 {@link Target} 推进时间，结果与机器快慢无关。
+ */
+public final class GestureReplayer {
+
+    /** 最高的回放帧率 */
+    public static final float MAX_FRAME_RATE = 240;
+
+    /** 轨迹结束后最多再绘制的帧数，等待惯性滚动和回弹结束 */
+    private static final int MAX_TRAILING_FRAMES = 1000;
+
+    /** 回放的对象 */
+    public interface Target {
+        /**
+         * 送出一个事件
+         *
+         * @param first 第一个历史采样的位置，没有历史采样时等于last
+         * @param last 事件本身的位置
+         * @param timeMs 按回放速度换算后的事件时间
+         */
+        void dispatch(GestureTrace trace, int first, int last, long timeMs);
+
+        /** 绘制一帧，返回是否还需要下一帧 */
+        boolean drawFrame(long frameTimeMs);
+
+        /** 到目前为止进度回调的次数 */
+        int getCallbackCount();
+
+        float getProgress();
+    }
+
+    public interface Clock {
+        long nanoTime();
+
+        /** 等到 nanoTime 不早于deadline，已经过了时直接返回 */
+        void waitUntil(long deadlineNanos);
+    }
+
+    private static final Clock SYSTEM_CLOCK = new Clock() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public void waitUntil(long deadlineNanos) {
+            long remaining;
+            while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(remaining);
+            }
+        }
+    };
+
+    private final GestureTrace mTrace;
+    private float mFrameRate = 60;
+    private float mSpeed = 1;
+    private Clock mClock = SYSTEM_CLOCK;
+
+    public GestureReplayer(GestureTrace trace) {
+        mTrace = trace;
+    }
+
+    /** 回放时的屏幕刷新率，不超过 {@link #MAX_FRAME_RATE} */
+    public void setFrameRate(float frameRate) {
+        if (!(frameRate > 0 && frameRate <= MAX_FRAME_RATE)) {
+            throw new IllegalArgumentException("Frame rate out of range: " + frameRate);
+        }
+        mFrameRate = frameRate;
+    }
+
+    /** 回放速度，1为录制时的速度 */
+    public void setSpeed(float speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Speed must be positive: " + speed);
+        }
+        mSpeed = speed;
+    }
+
+    /** 替换计时用的时钟，默认为 System.nanoTime */
+    public void setClock(Clock clock) {
+        mClock = clock == null ? SYSTEM_CLOCK : clock;
+    }
+
+    public Result replay(Target target) {
+        GestureTrace trace = mTrace;
+        double intervalMs = 1000.0 / mFrameRate;
+        double intervalNs = intervalMs * 1000000;
+        int startCallbacks = target.getCallbackCount();
+        int frames = 0;
+        int dropped = 0;
+        int next = 0;
+        int trailing = 0;
+        boolean wantsFrame = false;
+        long startNs = mClock.nanoTime();
+        long frame = 0;
+        while (next < trace.size() || (wantsFrame && trailing < MAX_TRAILING_FRAMES)) {
+            if (!wantsFrame) {
+                // 没有动画时不需要每个vsync都醒来，直接等到下一个事件所在的vsync
+                long eventMs = getEventTime(endOfEvent(next));
+                frame = Math.max(frame, (long)Math.ceil(eventMs / intervalMs));
+            }
+            long vsyncNs = startNs + (long)(frame * intervalNs);
+            mClock.waitUntil(vsyncNs);
+            long frameTimeMs = (long)(frame * intervalMs);
+            if (next >= trace.size()) {
+                trailing++;
+            }
+            boolean dispatched = false;
+            while (next < trace.size()) {
+                int last = endOfEvent(next);
+                long timeMs = getEventTime(last);
+                if (timeMs > frameTimeMs) {
+                    break;
+                }
+                target.dispatch(trace, next, last, timeMs);
+                dispatched = true;
+                next = last + 1;
+            }
+            frame++;
+            if (!dispatched && !wantsFrame) {
+                // 没有事件也没有动画，这个vsync不需要绘制
+                continue;
+            }
+            wantsFrame = target.drawFrame(frameTimeMs);
+            frames++;
+            // 画完时已经过了下一个vsync，错过的vsync都算掉帧
+            long late = mClock.nanoTime() - (startNs + (long)(frame * intervalNs));
+            if (late > 0) {
+                int missed = (int)((late - 1) / intervalNs) + 1;
+                dropped += missed;
+                frame += missed;
+            }
+        }
+        return new Result(frames, dropped, target.getCallbackCount() - startCallbacks, target.getProgress());
+    }
+
+    /** 从first开始的一个事件的最后一个采样，即历史采样后面的move */
+    private int endOfEvent(int first) {
+        int last = first;
+        while (last < mTrace.size() - 1 && mTrace.getType(last) == GestureTrace.TYPE_HISTORY) {
+            last++;
+        }
+        return last;
+    }
+
+    /** 按回放速度换算后的采样时间 */
+    private long getEventTime(int index) {
+        return (long)(mTrace.getTime(index) / mSpeed);
+    }
+
+    public static final class Result {
+
+        private final int mFrameCount;
+        private final int mDroppedFrames;
+        private final int mCallbackCount;
+        private final float mFinalProgress;
+
+        Result(int frameCount, int droppedFrames, int callbackCount, float finalProgress) {
+            mFrameCount = frameCount;
+            mDroppedFrames = droppedFrames;
+            mCallbackCount = callbackCount;
+            mFinalProgress = finalProgress;
+        }
+
+        /** 绘制的帧数 */
+        public int getFrameCount() {
+            return mFrameCount;
+        }
+
+        /** 没能在下一个vsync之前画完的帧错过的vsync数之和 */
+        public int getDroppedFrames() {
+            return mDroppedFrames;
+        }
+
+        public int getCallbackCount() {
+            return mCallbackCount;
+        }
+
+        public float getFinalProgress() {
+            return mFinalProgress;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "frames=%d, dropped=%d, callbacks=%d, progress=%.3f",
+                    mFrameCount, mDroppedFrames, mCallbackCount, mFinalProgress);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.lq.horizontalwheelview;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * 一次或多次拖动的触摸轨迹：每个采样记录类型、时间和x坐标，
+ * 批量事件中的历史采样排在它所属的move之前，类型为 {@link #TYPE_HISTORY}。
+ * 只记录一根手指，时间是相对第一个采样的毫秒数。
+ * <p>
+ * 二进制格式：魔数、采样数，然后每个采样依次是1字节类型、变长编码的时间增量和4字节的x。
+ */
+public final class GestureTrace {
+
+    /** 与 MotionEvent 的 action 取值一致 */
+    public static final int TYPE_DOWN = 0;
+    public static final int TYPE_UP = 1;
+    public static final int TYPE_MOVE = 2;
+    public static final int TYPE_CANCEL = 3;
+    /** 紧随其后的move事件的历史采样 */
+    public static final int TYPE_HISTORY = 0x7f;
+
+    /** "GTR1" */
+    private static final int MAGIC = 0x47545231;
+
+    private byte[] mTypes = new byte[64];
+    private int[] mTimes = new int[64];
+    private float[] mXs = new float[64];
+    private int mSize;
+    /** 第一个采样的绝对时间，只在录制时使用 */
+    private long mBaseTime = -1;
+
+    /**
+     * 追加一个采样
+     *
+     * @param timeMs 绝对时间，不能早于上一个采样
+     */
+    public void add(int type, long timeMs, float x) {
+        if (type != TYPE_DOWN && type != TYPE_UP && type != TYPE_MOVE && type != TYPE_CANCEL
+                && type != TYPE_HISTORY) {
+            throw new IllegalArgumentException("Unknown sample type: " + type);
+        }
+        if (mBaseTime < 0) {
+            mBaseTime = timeMs;
+        }
+        int time = (int)(timeMs - mBaseTime);
+        if (mSize > 0 && time < mTimes[mSize - 1]) {
+            throw new IllegalArgumentException("Sample time goes backwards: " + timeMs);
+        }
+        append((byte)type, time, x);
+    }
+
+    private void append(byte type, int time, float x) {
+        if (mSize == mTypes.length) {
+            int capacity = mSize * 2;
+            mTypes = Arrays.copyOf(mTypes, capacity);
+            mTimes = Arrays.copyOf(mTimes, capacity);
+            mXs = Arrays.copyOf(mXs, capacity);
+        }
+        mTypes[mSize] = type;
+        mTimes[mSize] = time;
+        mXs[mSize] = x;
+        mSize++;
+    }
+
+    public void clear() {
+        mSize = 0;
+        mBaseTime = -1;
+    }
+
+    /** 采样数，包括历史采样 */
+    public int size() {
+        return mSize;
+    }
+
+    public int getType(int index) {
+        return mTypes[index];
+    }
+
+    /** 相对第一个采样的毫秒数 */
+    public int getTime(int index) {
+        return mTimes[index];
+    }
+
+    public float getX(int index) {
+        return mXs[index];
+    }
+
+    /** 整个轨迹的时长，毫秒 */
+    public int getDuration() {
+        return mSize == 0 ? 0 : mTimes[mSize - 1];
+    }
+
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(mSize);
+        int lastTime = 0;
+        for (int i = 0; i < mSize; i++) {
+            data.writeByte(mTypes[i]);
+            writeVarInt(data, mTimes[i] - lastTime);
+            data.writeFloat(mXs[i]);
+            lastTime = mTimes[i];
+        }
+        data.flush();
+    }
+
+    public static GestureTrace read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a gesture trace");
+        }
+        int size = data.readInt();
+        if (size < 0) {
+            throw new IOException("Corrupted gesture trace, size: " + size);
+        }
+        GestureTrace trace = new GestureTrace();
+        int time = 0;
+        for (int i = 0; i < size; i++) {
+            byte type = data.readByte();
+            time += readVarInt(data);
+            trace.append(type, time, data.readFloat());
+        }
+        trace.mBaseTime = 0;
+        return trace;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
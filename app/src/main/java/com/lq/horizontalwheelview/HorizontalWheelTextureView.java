@@ -0,0 +1,574 @@
+package com.lq.horizontalwheelview;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.graphics.SurfaceTexture;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.Choreographer;
+import android.view.MotionEvent;
+import android.view.Surface;
+import android.view.TextureView;
+import android.view.VelocityTracker;
+import android.view.ViewConfiguration;
+import android.widget.OverScroller;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 在独立渲染线程上绘制的圆盘，绘制逻辑与 {@link HorizontalWheelView} 相同。
+ * 主线程只负责把触摸事件写入 {@link WheelInputSlot}，拖动、惯性滚动、回弹和绘制都在渲染线程按vsync进行，
+ * 主线程卡顿时圆盘仍然按屏幕刷新率绘制，回调在主线程空闲后送出最新的角度。
+ */
+public class HorizontalWheelTextureView extends TextureView implements TextureView.SurfaceTextureListener {
+
+    private static final float SIN60 = (float)Math.sin(Math.PI / 3);
+
+    /** 松手后回弹到整数角度的动画时长 */
+    private static final int SETTLE_DURATION = 150;
+
+    /** 只在渲染线程使用，渲染线程启动前在主线程配置 */
+    private final WheelGeometry mGeometry = new WheelGeometry();
+    private final WheelRenderer mRenderer;
+    private final OverScroller mScroller;
+    /** 上一次绘制时画面状态的量化key */
+    private final WheelVisualState mVisualState = new WheelVisualState();
+
+    private final WheelInputSlot mInputSlot = new WheelInputSlot();
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    /** attach后创建，surface销毁或detach时结束，只在主线程读写 */
+    private RenderThread mRenderThread;
+    /** 是否需要重新绘制，渲染线程启动后只在渲染线程使用 */
+    private boolean mDirty = true;
+
+    // 以下只在主线程使用
+    private VelocityTracker mVelocityTracker;
+    private int mActivePointerId = MotionEvent.INVALID_POINTER_ID;
+    private float mLastX;
+    private int mMinFlingVelocity;
+    private int mMaxFlingVelocity;
+    private OnProgressChangeListener mListener;
+    /** 渲染线程直接发布，不经过主线程 */
+    private volatile ProgressChannel mProgressChannel;
+
+    /** 渲染线程最新的角度，主线程读取 */
+    private volatile float mProgress;
+    /** 是否已经向主线程发出了还没执行的进度回调 */
+    private final AtomicBoolean mProgressPosted = new AtomicBoolean();
+    private final Runnable mDispatchProgress = new Runnable() {
+        @Override
+        public void run() {
+            mProgressPosted.set(false);
+            if (mListener != null) {
+                mListener.onProgressChanged(HorizontalWheelTextureView.this, mProgress, true);
+            }
+        }
+    };
+    private final Runnable mDispatchStart = new Runnable() {
+        @Override
+        public void run() {
+            if (mListener != null) {
+                mListener.onStartTrackingTouch(HorizontalWheelTextureView.this);
+            }
+        }
+    };
+    private final Runnable mDispatchStop = new Runnable() {
+        @Override
+        public void run() {
+            if (mListener != null) {
+                mListener.onStopTrackingTouch(HorizontalWheelTextureView.this);
+            }
+        }
+    };
+
+    public HorizontalWheelTextureView(Context context) {
+        this(context, null);
+    }
+
+    public HorizontalWheelTextureView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        mRenderer = new WheelRenderer(getResources().getDisplayMetrics(), HorizontalWheelView.getDefaultTheme());
+        mGeometry.setMinCalibrationSpacing(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 3,
+                getResources().getDisplayMetrics()));
+        mGeometry.setRegion(-45, 45);
+        mRenderer.onScaleChanged(mGeometry);
+        mScroller = new OverScroller(context);
+        ViewConfiguration configuration = ViewConfiguration.get(context);
+        mMinFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+        mMaxFlingVelocity = configuration.getScaledMaximumFlingVelocity();
+        setOpaque(true);
+        setSurfaceTextureListener(this);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int heightSpecMode = MeasureSpec.getMode(heightMeasureSpec);
+        int height = MeasureSpec.getSize(heightMeasureSpec);
+        int caliLength = mRenderer.getCaliLength();
+        int needHeight = (int)(getPaddingTop() + getPaddingBottom() + caliLength + mRenderer.getCursorPad() * 2 + 4 * 2 + caliLength * SIN60 * 2);
+        height = heightSpecMode == MeasureSpec.EXACTLY ? Math.max(height, needHeight) : Math.min(height, needHeight);
+        setMeasuredDimension(MeasureSpec.getSize(widthMeasureSpec), height);
+    }
+
+    /** 设置刻度旋转范围，可以是小数，也可以不对称 */
+    public void setRegion(final float min, final float max) {
+        runOnRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                mGeometry.setRegion(min, max);
+                mRenderer.onScaleChanged(mGeometry);
+                mVisualState.invalidate();
+                publishProgress(false);
+            }
+        });
+    }
+
+    /** 设置角度的精度，松手后角度取整到它的整数倍 */
+    public void setResolution(final float resolution) {
+        runOnRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                mGeometry.setResolution(resolution);
+                mRenderer.onScaleChanged(mGeometry);
+                mVisualState.invalidate();
+                mDirty = true;
+            }
+        });
+    }
+
+    /** 设置刻度的绘制方式，HorizontalWheelView.RENDER_MODE_LAYER 或 RENDER_MODE_CLIP */
+    public void setRenderMode(final int renderMode) {
+        if (renderMode != HorizontalWheelView.RENDER_MODE_LAYER && renderMode != HorizontalWheelView.RENDER_MODE_CLIP) {
+            throw new IllegalArgumentException("Unknown render mode: " + renderMode);
+        }
+        runOnRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                mRenderer.setRenderMode(renderMode);
+                mDirty = true;
+            }
+        });
+    }
+
+    /**
+     * 角度在渲染线程上按范围限制后生效，之后 {@link #getProgress} 才会返回新的角度。
+     * 拖动、惯性滚动或回弹中调用会结束这次拖动，和松手停下一样回调 onStopTrackingTouch
+     */
+    public void setProgress(final float progress) {
+        final RenderThread thread = mRenderThread;
+        runOnRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                mScroller.forceFinished(true);
+                if (mGeometry.setDegree(progress)) {
+                    publishProgress(false);
+                } else {
+                    // 角度没变或者被限制在边界上，只需要让 getProgress 与geometry一致
+                    mProgress = mGeometry.getCurrentDegree();
+                }
+                if (thread != null) {
+                    // 打断了拖动、惯性滚动或回弹时，和停下来一样结束这次拖动
+                    thread.stopTracking();
+                }
+            }
+        });
+    }
+
+    /** 渲染线程最近一帧的角度 */
+    public float getProgress() {
+        return mProgress;
+    }
+
+    /** 回调都在主线程 */
+    public void setOnProgressChangeListener(OnProgressChangeListener listener) {
+        mListener = listener;
+    }
+
+    /** 渲染线程每次进度变化都发布到channel，主线程卡顿时后台的处理也不会停下来 */
+    public void setProgressChannel(ProgressChannel channel) {
+        mProgressChannel = channel;
+    }
+
+    /** 渲染线程运行时交给它执行，否则直接在主线程执行 */
+    private void runOnRenderThread(Runnable task) {
+        RenderThread thread = mRenderThread;
+        if (thread == null) {
+            task.run();
+        } else {
+            thread.post(task);
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (mRenderThread == null) {
+            mRenderThread = new RenderThread();
+            mRenderThread.start();
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        // 有surface时，detach之后会回调 onSurfaceTextureDestroyed，在那里结束渲染线程
+        if (!isAvailable()) {
+            stopRenderThread(null);
+        }
+        mMainHandler.removeCallbacks(mDispatchProgress);
+        mMainHandler.removeCallbacks(mDispatchStart);
+        mMainHandler.removeCallbacks(mDispatchStop);
+        mProgressPosted.set(false);
+        if (mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
+    }
+
+    /**
+     * 结束渲染线程并等待它退出，与 GLSurfaceView 在surface销毁时的做法相同，
+     * 返回后渲染线程不会再使用surface，也不会再修改圆盘的状态
+     */
+    private void stopRenderThread(SurfaceTexture texture) {
+        RenderThread thread = mRenderThread;
+        mRenderThread = null;
+        if (thread == null) {
+            if (texture != null) {
+                texture.release();
+            }
+            return;
+        }
+        thread.shutdown(texture);
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                if (mVelocityTracker == null) {
+                    mVelocityTracker = VelocityTracker.obtain();
+                }
+                mVelocityTracker.clear();
+                mVelocityTracker.addMovement(event);
+                mActivePointerId = event.getPointerId(0);
+                mLastX = event.getX();
+                mInputSlot.press();
+                break;
+            case MotionEvent.ACTION_POINTER_DOWN:
+                mActivePointerId = event.getPointerId(event.getActionIndex());
+                mLastX = event.getX(event.getActionIndex());
+                break;
+            case MotionEvent.ACTION_MOVE: {
+                int index = event.findPointerIndex(mActivePointerId);
+                if (index < 0) {
+                    return true;
+                }
+                if (mVelocityTracker != null) {
+                    mVelocityTracker.addMovement(event);
+                }
+                float x = event.getX(index);
+                mInputSlot.move(x - mLastX);
+                mLastX = x;
+                break;
+            }
+            case MotionEvent.ACTION_POINTER_UP: {
+                int index = event.getActionIndex();
+                if (event.getPointerId(index) == mActivePointerId) {
+                    int newIndex = index == 0 ? 1 : 0;
+                    mActivePointerId = event.getPointerId(newIndex);
+                    mLastX = event.getX(newIndex);
+                }
+                break;
+            }
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL: {
+                float velocity = 0;
+                if (mVelocityTracker != null && event.getActionMasked() == MotionEvent.ACTION_UP) {
+                    mVelocityTracker.addMovement(event);
+                    mVelocityTracker.computeCurrentVelocity(1000, mMaxFlingVelocity);
+                    velocity = mVelocityTracker.getXVelocity(mActivePointerId);
+                }
+                mActivePointerId = MotionEvent.INVALID_POINTER_ID;
+                mInputSlot.release(Math.abs(velocity) > mMinFlingVelocity ? velocity : 0);
+                break;
+            }
+            default:
+                return true;
+        }
+        RenderThread thread = mRenderThread;
+        if (thread != null) {
+            thread.requestFrame();
+        }
+        return true;
+    }
+
+    @Override
+    public void onSurfaceTextureAvailable(SurfaceTexture surface, int width, int height) {
+        onSurfaceTextureSizeChanged(surface, width, height);
+    }
+
+    @Override
+    public void onSurfaceTextureSizeChanged(final SurfaceTexture surface, final int width, final int height) {
+        final RenderThread thread = mRenderThread;
+        if (thread == null) {
+            return;
+        }
+        final Rect validRect = new Rect(getPaddingLeft(), getPaddingTop(),
+                width - getPaddingRight(), height - getPaddingBottom());
+        thread.post(new Runnable() {
+            @Override
+            public void run() {
+                thread.setSurface(surface, width, height, validRect);
+            }
+        });
+    }
+
+    @Override
+    public boolean onSurfaceTextureDestroyed(SurfaceTexture surface) {
+        // 渲染线程退出后再释放，所以这里返回false
+        stopRenderThread(surface);
+        return false;
+    }
+
+    @Override
+    public void onSurfaceTextureUpdated(SurfaceTexture surface) {
+    }
+
+    /**
+     * 进度变化后记下最新的角度并标记重绘
+     *
+     * @param fromUser 拖动或动画引起的变化，合并成主线程的一次回调
+     */
+    private void publishProgress(boolean fromUser) {
+        mProgress = mGeometry.getCurrentDegree();
+        mRenderer.onProgressUpdated(mGeometry);
+        mDirty = true;
+        ProgressChannel channel = mProgressChannel;
+        if (channel != null) {
+            channel.publish(mProgress);
+        }
+        if (fromUser && mProgressPosted.compareAndSet(false, true)) {
+            mMainHandler.post(mDispatchProgress);
+        }
+    }
+
+    /** 渲染线程：每个vsync读取一次输入，推进动画并绘制 */
+    private final class RenderThread extends HandlerThread implements Choreographer.FrameCallback {
+
+        private Handler mHandler;
+        private Choreographer mChoreographer;
+        private Surface mSurface;
+        /** 主线程请求了下一帧，还没有执行 */
+        private final AtomicBoolean mFrameRequested = new AtomicBoolean();
+        private final Runnable mScheduleFrame = new Runnable() {
+            @Override
+            public void run() {
+                mChoreographer.postFrameCallback(RenderThread.this);
+            }
+        };
+
+        /** 以下只在渲染线程使用 */
+        private boolean mTracking;
+        private boolean mSettling;
+        private int mLastScrollX;
+
+        RenderThread() {
+            super("HorizontalWheelRender");
+        }
+
+        @Override
+        protected void onLooperPrepared() {
+            mChoreographer = Choreographer.getInstance();
+        }
+
+        @Override
+        public synchronized void start() {
+            super.start();
+            mHandler = new Handler(getLooper());
+        }
+
+        void post(Runnable task) {
+            mHandler.post(task);
+            requestFrame();
+        }
+
+        /** 任意线程调用，每帧最多安排一次 */
+        void requestFrame() {
+            if (mFrameRequested.compareAndSet(false, true)) {
+                mHandler.post(mScheduleFrame);
+            }
+        }
+
+        /** 停止绘制，释放surface和共享资源后退出 */
+        void shutdown(final SurfaceTexture texture) {
+            mHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    mChoreographer.removeFrameCallback(RenderThread.this);
+                    if (mSurface != null) {
+                        mSurface.release();
+                        mSurface = null;
+                    }
+                    if (texture != null) {
+                        texture.release();
+                    }
+                    mRenderer.release();
+                    quit();
+                }
+            });
+        }
+
+        void setSurface(SurfaceTexture texture, int width, int height, Rect validRect) {
+            if (mSurface == null) {
+                mSurface = new Surface(texture);
+            }
+            mGeometry.setBounds(validRect.width(), validRect.centerX());
+            mRenderer.setBounds(width, height, validRect, mGeometry);
+            mVisualState.invalidate();
+            mDirty = true;
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mFrameRequested.set(false);
+            boolean animating = consumeInput();
+            if (!mScroller.isFinished()) {
+                animating = stepScroll();
+            }
+            if (mDirty) {
+                mDirty = false;
+                draw();
+            }
+            if (animating) {
+                requestFrame();
+            }
+        }
+
+        /** 处理主线程写入的触摸输入，返回是否开始了动画 */
+        private boolean consumeInput() {
+            int events = mInputSlot.consume();
+            if ((events & WheelInputSlot.EVENT_STARTED) != 0) {
+                boolean wasScrolling = mTracking && !mScroller.isFinished();
+                mScroller.forceFinished(true);
+                mSettling = false;
+                if (!wasScrolling) {
+                    mTracking = true;
+                    mMainHandler.post(mDispatchStart);
+                }
+            }
+            if ((events & WheelInputSlot.EVENT_MOVED) != 0) {
+                mGeometry.applyOffset(mInputSlot.getDelta());
+                onMoved();
+            }
+            if ((events & WheelInputSlot.EVENT_RELEASED) != 0) {
+                float velocity = mInputSlot.getReleaseVelocity();
+                if (velocity != 0) {
+                    int maxOffsetX = mGeometry.getMaxOffsetX();
+                    mLastScrollX = Math.round(mGeometry.getTotalOffsetX());
+                    mSettling = false;
+                    mScroller.fling(mLastScrollX, 0, (int)velocity, 0, -maxOffsetX, maxOffsetX, 0, 0);
+                } else {
+                    startSettle();
+                }
+                return true;
+            }
+            return false;
+        }
+
+        private void startSettle() {
+            mLastScrollX = Math.round(mGeometry.getTotalOffsetX());
+            int targetX = Math.round(mGeometry.getOffsetByDegree(mGeometry.getRoundedDegree()));
+            if (targetX == mLastScrollX) {
+                finishTracking();
+                return;
+            }
+            mSettling = true;
+            mScroller.startScroll(mLastScrollX, 0, targetX - mLastScrollX, 0, SETTLE_DURATION);
+        }
+
+        /** 推进一帧惯性滚动或回弹，返回是否还需要下一帧 */
+        private boolean stepScroll() {
+            boolean running = mScroller.computeScrollOffset();
+            int x = mScroller.getCurrX();
+            boolean pinned = false;
+            if (x != mLastScrollX) {
+                pinned = mGeometry.applyOffset(x - mLastScrollX);
+                mLastScrollX = x;
+                onMoved();
+            }
+            if (running && !pinned && !mScroller.isFinished()) {
+                return true;
+            }
+            mScroller.forceFinished(true);
+            if (!mSettling) {
+                startSettle();
+                return !mScroller.isFinished();
+            }
+            finishTracking();
+            return false;
+        }
+
+        private void finishTracking() {
+            mGeometry.roundDegree();
+            // 最终角度一定要发出去，不经过画面状态的判断
+            mVisualState.update(mGeometry, mRenderer.getTheme().ordinal());
+            publishProgress(true);
+            stopTracking();
+        }
+
+        /** 结束这次拖动，还在拖动中时通知主线程 onStopTrackingTouch */
+        void stopTracking() {
+            mSettling = false;
+            if (mTracking) {
+                mTracking = false;
+                mMainHandler.post(mDispatchStop);
+            }
+        }
+
+        private void onMoved() {
+            // 画面没有可见变化时不重绘也不回调
+            if (mVisualState.update(mGeometry, mRenderer.getTheme().ordinal())) {
+                publishProgress(true);
+            }
+        }
+
+        private void draw() {
+            Surface surface = mSurface;
+            if (surface == null || !surface.isValid() || !mRenderer.isReady()) {
+                return;
+            }
+            Canvas canvas = Build.VERSION.SDK_INT >= Build.VERSION_CODES.M
+                    ? surface.lockHardwareCanvas() : surface.lockCanvas(null);
+            try {
+                canvas.drawColor(mRenderer.getTheme().getBgColor());
+                mRenderer.draw(canvas, mGeometry);
+            } finally {
+                surface.unlockCanvasAndPost(canvas);
+            }
+        }
+    }
+
+    /** 所有回调都在主线程，onProgressChanged 只送出最新的角度 */
+    public interface OnProgressChangeListener {
+        void onProgressChanged(HorizontalWheelTextureView view, float progress, boolean fromUser);
+        void onStartTrackingTouch(HorizontalWheelTextureView view);
+        void onStopTrackingTouch(HorizontalWheelTextureView view);
+    }
+}
@@ -1,103 +1,82 @@
 package com.lq.horizontalwheelview;
 
 import android.content.Context;
-import android.content.res.Resources;
 import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.LinearGradient;
 import android.graphics.Paint;
-import android.graphics.Path;
-import android.graphics.PointF;
-import android.graphics.PorterDuff;
-import android.graphics.PorterDuffXfermode;
 import android.graphics.Rect;
-import android.graphics.Shader;
-import android.graphics.Typeface;
+import android.os.SystemClock;
 import android.util.AttributeSet;
-import android.util.Log;
 import android.util.TypedValue;
+import android.view.Display;
 import android.view.MotionEvent;
+import android.view.VelocityTracker;
 import android.view.View;
-
-import java.util.ArrayList;
+import android.view.ViewConfiguration;
+import android.widget.OverScroller;
 
 public class HorizontalWheelView extends View{
 
-    private static final String TAG = "wheel";
-
-    private static final String DU = "°";
-
-    private static final int VISIBLE_DEGREE_D = 90;
-    private static final double VISIBLE_DEGREE = VISIBLE_DEGREE_D / 180f * Math.PI;
-    private static final double VISIBLE_HALF_DEGREE = VISIBLE_DEGREE/2;
-
-    private static final double REL_R = 0.5f / Math.sin(VISIBLE_DEGREE / 2);
-    private static final double PI_DOU_2 = 2 * Math.PI;
     private static final float SIN60 = (float)Math.sin(Math.PI / 3);
 
     public static final int sCrimsonColor = 0xFFD33A2A;//0xFFDD5847;
 
-    private static Theme sTheme = Theme.BLACK;
-
-    private Paint mLeftMaskPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-    private Paint mRightMaskPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-    private Paint mMaskAllPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-    private Paint mLayerPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    /** 离屏layer绘制刻度，再用SRC_IN把进度区间染成红色 */
+    public static final int RENDER_MODE_LAYER = 0;
+    /** 不使用离屏layer，分别裁剪进度区间内外，用两种颜色各绘制一次刻度 */
+    public static final int RENDER_MODE_CLIP = 1;
+
+    /** 每次进度变化都立即回调 onProgressChanged */
+    public static final int DISPATCH_IMMEDIATE = 0;
+    /** 每帧最多回调一次，只送出这一帧内最新的进度 */
+    public static final int DISPATCH_PER_FRAME = 1;
+    /** 每帧最多回调一次，并且只在取整后的角度变化时回调 */
+    public static final int DISPATCH_ON_CHANGE = 2;
+    /** 拖动过程中不回调，只在 onStopTrackingTouch 之前回调一次最终进度 */
+    public static final int DISPATCH_COMMIT_ONLY = 3;
+
+    /** 松手后回弹到整数角度的动画时长 */
+    private static final int SETTLE_DURATION = 150;
+    /** setProgress 动画的时长 */
+    private static final int ANIMATE_DURATION = 250;
 
-    /** 绘制圆盘刻度的paint */
-    private Paint mCalibrationPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-    /** 绘制圆盘中心旋转度数的paint */
-    private Paint mTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-    /** 绘制圆盘上下三角形游标的paint */
-    private Paint mCursorPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-    /** 绘制偏移Rect的paint */
-    private Paint mOffsetXPaint = new Paint();
-
-    {
-        mCalibrationPaint.setStyle(Paint.Style.STROKE);
-        mCalibrationPaint.setColor(sTheme.getCaliColor());
-        mCalibrationPaint.setStrokeWidth(3);
-
-        mTextPaint.setTextSize(36);//default
-        mTextPaint.setColor(sTheme.getTextColor());
-
-        mCursorPaint.setStyle(Paint.Style.FILL);
-        mCursorPaint.setColor(sTheme.getCursorColor());
+    private static Theme sTheme = Theme.BLACK;
 
-        mOffsetXPaint.setStyle(Paint.Style.FILL);
-        mOffsetXPaint.setColor(sCrimsonColor);
-        mOffsetXPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.SRC_IN));
+    static Theme getDefaultTheme() {
+        return sTheme;
     }
 
-    /** 圆盘的半径 */
-    private double mRadius;
-
-    private float mCalibrationRadius;
-
-    /** 圆盘中间刻度的长度 */
-    private int mCaliLength;
+    /** 偏移量、旋转角度和刻度位置的计算 */
+    private final WheelGeometry mGeometry = new WheelGeometry();
 
-    /** 圆盘转过的角度 */
-    private float mCurrentDegree;
+    /** 刻度、遮罩、文本和游标的绘制，第一次测量时才创建，避免inflate时查询字体和度量 */
+    private WheelRenderer mRenderer;
+    /** 创建renderer之前设置的绘制方式 */
+    private int mRenderMode = RENDER_MODE_CLIP;
 
-    /** 刻度集合 */
-    private ArrayList<Calibration> mCalibrations = new ArrayList<Calibration>();
+    private final ProgressDispatcher mProgressDispatcher = new ProgressDispatcher(this);
 
-    /** 向左旋转的最大角度 */
-    private int mMinDegree;
+    /** 上一次重绘时画面状态的量化key，没有变化时跳过重绘和回调 */
+    private final WheelVisualState mVisualState = new WheelVisualState();
 
-    /** 向右旋转的最大角度 */
-    private int mMaxDegree;
+    /** 本次需要重绘的区域 */
+    private final Rect mDirtyRect = new Rect();
+    private final Rect mTempRect = new Rect();
+    /** 是否把每次重绘的区域画出来，调试用 */
+    private boolean mShowDirtyRegions;
+    /** 上一次重绘区域的描边，调试用 */
+    private final Rect mDebugDirtyRect = new Rect();
+    private Paint mDebugDirtyPaint;
 
-    /** 游标与刻度的上下间距 */
-    private int mCursorPad;
-
-    /** textDrawPoint[0]:文本宽度，textDrawPoint[1]:文本高度，textDrawPoint[2]:文本top padding */
-    private float[] mTextDrawBounds = new float[3];
-
-    private Rect mCenterNumRect = new Rect();
-
-    private PointF mTextPoint = new PointF();
+    /** 每帧的统计数据，没有设置 OnFrameMetricsListener 时为null */
+    private WheelFrameMetrics mFrameMetrics;
+    private OnFrameMetricsListener mOnFrameMetricsListener;
+    /** 还没有被绘制出来的第一个触摸事件的时间 */
+    private long mPendingInputNanos;
+    /** 上一帧绘制时已经发出的回调次数 */
+    private int mLastFrameDispatchCount;
+    /** 拖动结束，下一帧绘制完成后把统计数据交给listener */
+    private boolean mDeliverMetricsOnNextDraw;
 
     public HorizontalWheelView(Context context) {
         super(context);
@@ -112,28 +91,37 @@ public class HorizontalWheelView extends View{
     }
 
     private void initDefaultValue() {
-        mCursorPad = 20;
-        float textSize = getPixelsFromSP(14);
-        mTextPaint.setTextSize(textSize);
-        mTextPaint.setTypeface(Typeface.create("sans-serif-medium", Typeface.NORMAL));
+        mGeometry.setMinCalibrationSpacing(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 3,
+                getResources().getDisplayMetrics()));
         setRegion(45);
-        getTextBounds(getProgressStr(-45), mTextPaint, mTextDrawBounds);
-        mCaliLength = (int)(mTextDrawBounds[1] * 4 / 7);
-        mCalibrationRadius = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 2,
-                getResources().getDisplayMetrics());
+
+        ViewConfiguration configuration = ViewConfiguration.get(getContext());
+        mMinFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+        mMaxFlingVelocity = configuration.getScaledMaximumFlingVelocity();
+    }
+
+    /** 第一次用到时创建renderer，并补上之前设置的范围、角度和绘制方式 */
+    private WheelRenderer obtainRenderer() {
+        if (mRenderer == null) {
+            mRenderer = new WheelRenderer(getResources().getDisplayMetrics(), sTheme);
+            mRenderer.setRenderMode(mRenderMode);
+            mRenderer.onScaleChanged(mGeometry);
+            mRenderer.onProgressUpdated(mGeometry);
+        }
+        return mRenderer;
     }
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-        int width ,height;
-        setMeasuredDimension(width = MeasureSpec.getSize(widthMeasureSpec), height = measureHeight(heightMeasureSpec));
-        Log.i(TAG, "onMeasure()--width=" + width + ",height=" + height);
+        setMeasuredDimension(MeasureSpec.getSize(widthMeasureSpec), measureHeight(heightMeasureSpec));
     }
 
     private int measureHeight(int heightMeasureSpec) {
         int heightSpecMode = MeasureSpec.getMode(heightMeasureSpec);
         int height = MeasureSpec.getSize(heightMeasureSpec);
-        int needHeight = (int)(getPaddingTop() + getPaddingBottom() + mCaliLength + mCursorPad * 2 + 4 * 2 + mCaliLength * SIN60 * 2);
+        WheelRenderer renderer = obtainRenderer();
+        int caliLength = renderer.getCaliLength();
+        int needHeight = (int)(getPaddingTop() + getPaddingBottom() + caliLength + renderer.getCursorPad() * 2 + 4 * 2 + caliLength * SIN60 * 2);
         if (heightSpecMode == MeasureSpec.EXACTLY) {
             return Math.max(height, needHeight);
         } else {
@@ -147,398 +135,627 @@ public class HorizontalWheelView extends View{
         setRegion(-d, d);
     }
 
-    /** 设置刻度旋转范围 */
-    private void setRegion(int min, int max) {
-        mMinDegree = min;
-        mMaxDegree = max;
+    /** 设置刻度旋转范围，可以是小数，也可以不对称 */
+    public void setRegion(float min, float max) {
+        mGeometry.setRegion(min, max);
+        onScaleChanged();
+    }
+
+    /** 设置角度的精度，例如0.1，松手后角度取整到它的整数倍，默认为1 */
+    public void setResolution(float resolution) {
+        mGeometry.setResolution(resolution);
+        onScaleChanged();
+    }
+
+    public float getResolution() {
+        return mGeometry.getResolution();
+    }
+
+    /**
+     * 设置刻度的间隔
+     *
+     * @param step 相邻两个刻度代表的角度，默认约4.44，范围为±45度时相邻刻度在圆盘上相隔4度
+     * @param majorEvery 每隔多少个刻度画一个长刻度，0表示不区分长短刻度
+     */
+    public void setCalibrationStep(float step, int majorEvery) {
+        mGeometry.setCalibrationStep(step, majorEvery);
+        mVisualState.invalidate();
+        invalidate();
+    }
+
+    /** 范围或精度改变后，更新文本表和文本区域 */
+    private void onScaleChanged() {
+        if (mRenderer != null) {
+            mRenderer.onScaleChanged(mGeometry);
+        }
+        mVisualState.invalidate();
+        invalidate();
+    }
+
+    /** progress取整到精度后是精度的多少倍 */
+    long quantizeProgress(float progress) {
+        return mGeometry.quantize(progress);
     }
 
     /** 剔除掉所有padding之后的可绘制区域 */
     private Rect mValidDrawBounds = new Rect();
-    /** 以view的中点为原点的总的偏移量 */
-    private float mTotalOffsetX = 0;
     private float mPreDownX = 0;
     private float mOffsetX = 0;
+    /** 正在拖动的手指 */
+    private int mActivePointerId = MotionEvent.INVALID_POINTER_ID;
+    /** 是否开启低延迟输入 */
+    private boolean mLowLatencyInput;
+    /** 是否外推到下一个vsync */
+    private boolean mInputPrediction;
+    /** 当前显示的位置是否是外推出来的 */
+    private boolean mPredicted;
+    /** 外推前的偏移量和角度，撤销外推时直接恢复，不做减法，避免在边界处累积误差 */
+    private float mPrePredictionOffsetX;
+    private float mPrePredictionDegree;
+    /** 屏幕一帧的时长，attach时按刷新率更新 */
+    private float mFrameIntervalMs = 1000f / 60;
+
+    /** 是否正在被拖动或处于惯性滚动、回弹中 */
+    private boolean mTracking;
+    /** 是否开启松手后的惯性滚动 */
+    private boolean mFlingEnabled = true;
+    private VelocityTracker mVelocityTracker;
+    private int mMinFlingVelocity;
+    private int mMaxFlingVelocity;
+    /** 惯性滚动和回弹共用同一个scroller，第一次用到时才创建 */
+    private OverScroller mScroller;
+    /** scroller上一帧的x，用来算出每一帧的偏移 */
+    private int mLastScrollX;
+    /** true为回弹到整数角度阶段，false为惯性滚动阶段 */
+    private boolean mSettling;
+
+    /** setProgress 动画的起止角度和开始时间，开始时间为0表示还没有推进过 */
+    private boolean mAnimatingProgress;
+    private float mAnimateFrom;
+    private float mAnimateTo;
+    private long mAnimateStartNanos;
+    /** 不在前台时每隔几个vsync推进一次动画 */
+    private int mBackgroundFrameDivisor = 1;
+
+    /** 惯性滚动、回弹和 setProgress 动画都由同一线程上所有圆盘共用的 WheelFrameScheduler 推进 */
+    private final WheelFrameScheduler.Client mFrameClient = new WheelFrameScheduler.Client() {
+        @Override
+        public boolean doAnimationFrame(long frameTimeNanos) {
+            if (mAnimatingProgress) {
+                return onProgressAnimationFrame(frameTimeNanos);
+            }
+            return mTracking && mScroller != null && onScrollFrame();
+        }
+
+        @Override
+        public int getFrameDivisor() {
+            return isInForeground() ? 1 : mBackgroundFrameDivisor;
+        }
+    };
+
     @Override
     public boolean onTouchEvent(MotionEvent event) {
-        int action = event.getAction();
-        if (action == MotionEvent.ACTION_DOWN) {
-            mPreDownX = event.getX();
+        if (mFrameMetrics != null && mPendingInputNanos == 0) {
+            mPendingInputNanos = System.nanoTime();
+        }
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                onTouchDown(event);
+                break;
+            case MotionEvent.ACTION_POINTER_DOWN:
+                // 新按下的手指接管拖动
+                setActivePointer(event, event.getActionIndex());
+                break;
+            case MotionEvent.ACTION_MOVE:
+                onTouchMove(event);
+                break;
+            case MotionEvent.ACTION_POINTER_UP:
+                onPointerUp(event);
+                break;
+            case MotionEvent.ACTION_UP:
+                onTouchUp(event, true);
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                onTouchUp(event, false);
+                break;
+            default:
+                break;
+        }
+        return true;
+    }
+
+    private void onTouchDown(MotionEvent event) {
+        boolean wasScrolling = stopScroll();
+        mPredicted = false;
+        setActivePointer(event, 0);
+        if (mLowLatencyInput) {
+            // 拖动期间每个move事件立即分发，不等到下一个vsync再批量分发
+            requestUnbufferedDispatch(event);
+        }
+        if (mFlingEnabled || mInputPrediction) {
+            if (mVelocityTracker == null) {
+                mVelocityTracker = VelocityTracker.obtain();
+            }
+            mVelocityTracker.clear();
+            mVelocityTracker.addMovement(event);
+        }
+        // 惯性滚动时按下，仍然算作同一次拖动
+        if (!wasScrolling) {
+            mTracking = true;
+            mProgressDispatcher.onStartTracking();
             if (mOnSeekBarChangeListener != null) {
                 mOnSeekBarChangeListener.onStartTrackingTouch(this);
             }
-        } else if (action == MotionEvent.ACTION_MOVE) {
-            mOffsetX = (event.getX() - mPreDownX);
-            mTotalOffsetX += mOffsetX;
-            mPreDownX = event.getX();
-            calProgress();
-            if (mCurrentDegree >= mMaxDegree || mCurrentDegree <= mMinDegree) {
-                calIntProgress();
-                if (mOnSeekBarChangeListener != null) {
-                    mOnSeekBarChangeListener.onProgressChanged(this, mCurrentDegree, false);
-                }
-                invalidate();
-                return true;
-            }
-            updateCalibrations(calDegreeByOffset(mOffsetX));
-            if (mOnSeekBarChangeListener != null) {
-                mOnSeekBarChangeListener.onProgressChanged(this, mCurrentDegree, false);
+        }
+    }
+
+    private void onTouchMove(MotionEvent event) {
+        int index = event.findPointerIndex(mActivePointerId);
+        if (index < 0) {
+            return;
+        }
+        if (mVelocityTracker != null) {
+            mVelocityTracker.addMovement(event);
+        }
+        clearPrediction();
+        if (mLowLatencyInput) {
+            // 依次累加批量事件中的历史位置，边界处的取整与手指的实际路径一致
+            for (int h = 0, size = event.getHistorySize(); h < size; h++) {
+                applyTouchX(event.getHistoricalX(index, h));
             }
-            invalidate();
-        } else if (action == MotionEvent.ACTION_UP) {
-            calIntProgress();
-            if (mOnSeekBarChangeListener != null) {
-                mOnSeekBarChangeListener.onStopTrackingTouch(this);
+        }
+        applyTouchX(event.getX(index));
+        float progress = mGeometry.getCurrentDegree();
+        if (mInputPrediction && mVelocityTracker != null) {
+            predictToNextFrame(event);
+        }
+        if (!updateVisualState()) {
+            // 被边界挡住或者移动不到半个像素，画面和显示的角度都没有变化
+            return;
+        }
+        notifyProgressChanged(progress);
+        onProgressUpdated();
+        invalidateMovingParts();
+    }
+
+    /** @return 画面状态的key是否有变化 */
+    private boolean updateVisualState() {
+        return mVisualState.update(mGeometry, sTheme.ordinal());
+    }
+
+    private void applyTouchX(float x) {
+        mOffsetX = x - mPreDownX;
+        mPreDownX = x;
+        mGeometry.applyOffset(mOffsetX);
+    }
+
+    private void onPointerUp(MotionEvent event) {
+        int index = event.getActionIndex();
+        if (event.getPointerId(index) == mActivePointerId) {
+            // 抬起的是正在拖动的手指，换成另一根手指继续
+            setActivePointer(event, index == 0 ? 1 : 0);
+            if (mVelocityTracker != null) {
+                mVelocityTracker.clear();
             }
-            Log.i(TAG, "ACTION_UP mCurrentDegree=" + mCurrentDegree);
         }
-        return true;
     }
 
-    private float getPixelsFromSP(float value) {
-        Resources r = getResources();
-        return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, value,
-                r.getDisplayMetrics());
+    private void setActivePointer(MotionEvent event, int index) {
+        mActivePointerId = event.getPointerId(index);
+        mPreDownX = event.getX(index);
+    }
+
+    /**
+     * 手指抬起或事件被取消
+     *
+     * @param allowFling 取消时不做惯性滚动，直接回弹
+     */
+    private void onTouchUp(MotionEvent event, boolean allowFling) {
+        clearPrediction();
+        mActivePointerId = MotionEvent.INVALID_POINTER_ID;
+        float velocityX = 0;
+        if (mVelocityTracker != null) {
+            mVelocityTracker.addMovement(event);
+            mVelocityTracker.computeCurrentVelocity(1000, mMaxFlingVelocity);
+            velocityX = mVelocityTracker.getXVelocity();
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
+        if (!mFlingEnabled) {
+            finishTracking();
+        } else if (allowFling && Math.abs(velocityX) > mMinFlingVelocity) {
+            startFling((int)velocityX);
+        } else {
+            startSettle();
+        }
+    }
+
+    /** 按当前速度把显示的位置外推到下一个vsync，下一个事件到来时先撤销 */
+    private void predictToNextFrame(MotionEvent event) {
+        // 速度单位是px/ms，上限也要换算成px/ms
+        mVelocityTracker.computeCurrentVelocity(1, mMaxFlingVelocity / 1000f);
+        float velocity = mVelocityTracker.getXVelocity(mActivePointerId);
+        // 事件产生到下一帧显示之间的时间，最多预测一帧
+        long age = SystemClock.uptimeMillis() - event.getEventTime();
+        float horizon = Math.max(0, Math.min(mFrameIntervalMs, mFrameIntervalMs - age));
+        float totalOffsetX = mGeometry.getTotalOffsetX();
+        float maxOffsetX = mGeometry.getMaxOffsetX();
+        float predicted = WheelGeometry.clamp(totalOffsetX + velocity * horizon, -maxOffsetX, maxOffsetX);
+        if (predicted != totalOffsetX) {
+            mPredicted = true;
+            mPrePredictionOffsetX = totalOffsetX;
+            mPrePredictionDegree = mGeometry.getCurrentDegree();
+            mGeometry.applyOffset(predicted - totalOffsetX);
+        }
+    }
+
+    private void clearPrediction() {
+        if (mPredicted) {
+            mPredicted = false;
+            mGeometry.restore(mPrePredictionOffsetX, mPrePredictionDegree);
+        }
+    }
+
+    /**
+     * 低延迟输入：拖动时请求不经缓冲地分发触摸事件，并且逐个处理批量事件中的历史位置。
+     * 适合高刷新率的屏幕，会增加每帧处理的事件数
+     */
+    public void setLowLatencyInput(boolean lowLatencyInput) {
+        mLowLatencyInput = lowLatencyInput;
+    }
+
+    public boolean isLowLatencyInput() {
+        return mLowLatencyInput;
     }
 
-    /** 根据总的偏移量计算旋转角度 */
-    private void calProgress() {
-        int viewW = mValidDrawBounds.width();
-        // 小于０为顺时针旋转，角度为正，大于０则相反
-        mTotalOffsetX = clamp(mTotalOffsetX, -viewW / 2f, viewW / 2f);
-        float ratio = mTotalOffsetX * 2 / viewW;
-        mCurrentDegree = clamp(ratio * mMaxDegree, mMinDegree, mMaxDegree);
-        mCurrentDegree = -mCurrentDegree;
-        //Log.i(TAG, "calProgress ratio="+ratio+" mTotalOffset="+mTotalOffset);
+    /**
+     * 拖动时按手指速度把显示的位置外推到下一个vsync，抵消一帧的显示延迟。
+     * 外推只影响绘制，回调的角度仍是手指的实际位置
+     */
+    public void setInputPrediction(boolean inputPrediction) {
+        mInputPrediction = inputPrediction;
+    }
 
-        updateTopCursor(mTotalOffsetX);
+    public boolean isInputPrediction() {
+        return mInputPrediction;
+    }
 
-        updateTextBasePoint(getProgressStr(mCurrentDegree));
-        //getTextBounds(String.valueOf(mCurrentDegree + "°"), mTextPaint, textDrawBounds);
-        //calTextDrawBounds(mValidDrawBounds);
+    /**
+     * 不等vsync回调，直接推进一帧惯性滚动、回弹或 setProgress 动画，返回是否还需要下一帧。
+     * 回放测试阻塞了主线程，用它逐帧驱动动画
+     */
+    boolean doAnimationFrame(long frameTimeNanos) {
+        return mFrameClient.doAnimationFrame(frameTimeNanos);
     }
 
-    /** ACTION_UP 时调用，将旋转角度强转为整数 */
-    private void calIntProgress() {
-        float flag = mCurrentDegree >= 0 ? 0.5f : -0.5f;
-        mCurrentDegree = (int)clamp(mCurrentDegree + flag, mMinDegree, mMaxDegree);
-        calOffsetByDegree(mCurrentDegree);
-        Log.i(TAG, "calIntProgress mTotalOffset="+mTotalOffsetX);
-        updateTopCursor(mTotalOffsetX);
-        updateTextBasePoint(getProgressStr(mCurrentDegree));
+    /** 开启或关闭松手后的惯性滚动，关闭时松手立即取整 */
+    public void setFlingEnabled(boolean flingEnabled) {
+        mFlingEnabled = flingEnabled;
     }
 
-    private static float clamp(float x, float min, float max) {
-        if (x > max) return max;
-        if (x < min) return min;
-        return x;
+    public boolean isFlingEnabled() {
+        return mFlingEnabled;
     }
 
-    private double calDegreeByOffset(double offset) {
-        return Math.asin(offset / mRadius);
+    private void startFling(int velocityX) {
+        int maxOffsetX = mGeometry.getMaxOffsetX();
+        mLastScrollX = Math.round(mGeometry.getTotalOffsetX());
+        mSettling = false;
+        obtainScroller().fling(mLastScrollX, 0, velocityX, 0, -maxOffsetX, maxOffsetX, 0, 0);
+        WheelFrameScheduler.getInstance().schedule(mFrameClient);
     }
 
-    private void updateCalibrations(double dDegree) {
-        if (mCalibrations.size() == 0 || dDegree == 0) {
+    /** 从当前偏移回弹到最近的整数角度 */
+    private void startSettle() {
+        mLastScrollX = Math.round(mGeometry.getTotalOffsetX());
+        int targetX = Math.round(mGeometry.getOffsetByDegree(mGeometry.getRoundedDegree()));
+        if (targetX == mLastScrollX) {
+            finishTracking();
             return;
         }
-        int halfW = mValidDrawBounds.centerX();
-        for (Calibration c : mCalibrations) {
-            c.degree += dDegree;
-            if (isFrontSide(c)) {
-                c.isFront = true;
-                c.calX(mRadius, halfW);
-                c.calL(mCaliLength);
-            } else {
-                c.isFront = false;
+        mSettling = true;
+        obtainScroller().startScroll(mLastScrollX, 0, targetX - mLastScrollX, 0, SETTLE_DURATION);
+        WheelFrameScheduler.getInstance().schedule(mFrameClient);
+    }
+
+    private OverScroller obtainScroller() {
+        if (mScroller == null) {
+            mScroller = new OverScroller(getContext());
+        }
+        return mScroller;
+    }
+
+    /** 每个vsync推进一次惯性滚动或回弹，返回是否还需要下一帧 */
+    private boolean onScrollFrame() {
+        boolean running = mScroller.computeScrollOffset();
+        int x = mScroller.getCurrX();
+        boolean pinned = false;
+        if (x != mLastScrollX) {
+            pinned = mGeometry.applyOffset(x - mLastScrollX);
+            mLastScrollX = x;
+            if (updateVisualState()) {
+                onProgressUpdated();
+                notifyProgressChanged(mGeometry.getCurrentDegree());
+                invalidateMovingParts();
             }
         }
+        if (running && !pinned && !mScroller.isFinished()) {
+            return true;
+        }
+        if (!mSettling) {
+            mScroller.forceFinished(true);
+            startSettle();
+            return mSettling;
+        }
+        finishTracking();
+        return false;
     }
 
-    private void updateTopCursor(float x) {
-        if(cursorTop != null){
-            cursorTop.transXTo(x);
+    /** 停止惯性滚动和回弹，返回之前是否正在滚动 */
+    private boolean stopScroll() {
+        WheelFrameScheduler.getInstance().cancel(mFrameClient);
+        mAnimatingProgress = false;
+        if (mScroller == null) {
+            mSettling = false;
+            return false;
+        }
+        boolean scrolling = mTracking && !mScroller.isFinished();
+        mScroller.forceFinished(true);
+        mSettling = false;
+        return scrolling;
+    }
+
+    /** 拖动结束：角度取整，并通知监听 */
+    private void finishTracking() {
+        mSettling = false;
+        mGeometry.roundDegree();
+        if (updateVisualState()) {
+            onProgressUpdated();
+            invalidateMovingParts();
+        }
+        if (!mTracking) {
+            return;
+        }
+        mTracking = false;
+        if (mFrameMetrics != null) {
+            mDeliverMetricsOnNextDraw = true;
+            // 画面没有变化时上面不会重绘，仍然要画一帧把这次拖动的统计交出去
+            invalidateMovingParts();
+        }
+        mProgressDispatcher.flush(mGeometry.getCurrentDegree());
+        publishToChannel(mGeometry.getCurrentDegree());
+        if (mOnSeekBarChangeListener != null) {
+            mOnSeekBarChangeListener.onStopTrackingTouch(this);
         }
     }
 
-    /** 上下三角形游标 */
-    private TriCursor cursorTop, cursorBottom;
-    @Override
-    protected void onDraw(Canvas canvas) {
-        int viewW = canvas.getWidth();
-        int viewH = canvas.getHeight();
-        initView(viewW, viewH);
-
-        calCalibrationsPath();
-        // calCalibrationsPoints();
-
-        canvas.saveLayer(0, 0, viewW, viewH, mLayerPaint, Canvas.ALL_SAVE_FLAG);
-        // draw calibrations path
-        canvas.drawPath(mCalibrationsPath, mCalibrationPaint);
+    private void notifyProgressChanged(float progress) {
+        mProgressDispatcher.onProgressChanged(progress);
+        publishToChannel(progress);
+    }
 
-        // draw calibrations point
-        /*
-        for (PointF p : mCalibrationsPoint) {
-            canvas.drawCircle(p.x, p.y, mCalibrationRadius, mCalibrationPaint);
+    private void publishToChannel(float progress) {
+        if (mProgressChannel != null) {
+            mProgressChannel.publish(progress);
         }
-        */
+    }
 
-        // draw progress mask
-        if (mTotalOffsetX >= 0) {
-            canvas.drawRect(viewW/2, 0, viewW/2 + mTotalOffsetX, viewH, mOffsetXPaint);
-        } else {
-            canvas.drawRect(viewW/2 + mTotalOffsetX, 0, viewW/2, viewH, mOffsetXPaint);
+    /**
+     * 设置 onProgressChanged 的回调方式，
+     * DISPATCH_IMMEDIATE、DISPATCH_PER_FRAME、DISPATCH_ON_CHANGE 或 DISPATCH_COMMIT_ONLY
+     */
+    public void setProgressDispatchMode(int mode) {
+        if (!ProgressDispatcher.isValidMode(mode)) {
+            throw new IllegalArgumentException("Unknown dispatch mode: " + mode);
         }
-        canvas.restore();
+        mProgressDispatcher.setMode(mode);
+    }
 
-        // draw mask
-        canvas.drawRect(leftMaskRect, mLeftMaskPaint);
-        canvas.drawRect(rightMaskRect, mRightMaskPaint);
-        canvas.drawRect(0, 0, viewW, viewH, mMaskAllPaint);
+    public int getProgressDispatchMode() {
+        return mProgressDispatcher.getMode();
+    }
 
-        // draw straighten text
-        canvas.save();
-        canvas.clipRect(mCenterNumRect);
-        canvas.drawColor(sTheme.getTextBgColor());
-        canvas.drawText(getProgressStr(mCurrentDegree), mTextPoint.x, mTextPoint.y, mTextPaint);
-        canvas.restore();
+    /** 拖动产生的进度变化次数 */
+    public int getProgressEventCount() {
+        return mProgressDispatcher.getEventCount();
+    }
 
-        // draw cursor
-        mCursorPaint.setColor(sCrimsonColor);
-        canvas.drawPath(cursorTop.path, mCursorPaint);
-        mCursorPaint.setColor(sTheme.getCursorColor());
-        canvas.drawPath(cursorBottom.path, mCursorPaint);
+    /** 实际回调 onProgressChanged 的次数 */
+    public int getProgressDispatchCount() {
+        return mProgressDispatcher.getDispatchCount();
     }
 
-    private Rect leftMaskRect = new Rect();
-    private Rect rightMaskRect = new Rect();
+    public void resetProgressCounters() {
+        mProgressDispatcher.resetCounters();
+    }
 
-    private void initView(int viewW, int viewH) {
-        if (mCalibrations.size() > 0) {
-            return;
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        // 没播完的 setProgress 动画直接跳到终点
+        float animateTo = mAnimateTo;
+        boolean animating = mAnimatingProgress;
+        if (stopScroll()) {
+            finishTracking();
         }
-        mValidDrawBounds.set(getPaddingLeft(), getPaddingTop(), viewW - getPaddingRight(), viewH - getPaddingBottom());
-        mRadius = mValidDrawBounds.width() * REL_R;
-        //getTextBounds("5°", mTextPaint, textDrawBounds);
-        //length = (int)textDrawBounds[1];
-        mCursorPad = 20;
-        calOffsetByDegree(mCurrentDegree);
-
-        initCursor(mValidDrawBounds);
-        initCalibrationPath(mValidDrawBounds);
-        initTextDrawBounds(mValidDrawBounds);
-        initMaskPaint(mValidDrawBounds);
-    }
-
-    private void initCursor(Rect validRect) {
-        // 初始化游标
-        int cursorEdge = mCaliLength * 4 / 5;
-        int cursorH = (int) (cursorEdge * SIN60);
-        int y = (validRect.height() - cursorEdge - cursorH * 2 - mCursorPad * 2) / 2;
-        cursorTop = new TriCursor();
-        cursorTop.face = false;
-        cursorTop.l = cursorEdge;
-        cursorTop.p = new PointF(validRect.centerX(), validRect.top + y);
-        cursorTop.initPath();
-        cursorTop.transXTo(mTotalOffsetX);
-
-        cursorBottom = new TriCursor();
-        cursorBottom.face = true;
-        cursorBottom.l = cursorEdge;
-        cursorBottom.p = new PointF(validRect.centerX(), validRect.bottom - y);
-        cursorBottom.initPath();
-    }
-
-    private void initCalibrationPath(Rect validRect) {
-        mCalibrations.clear();
-        int halfW = validRect.centerX();
-        Log.i(TAG, "initCalibrationPath REL_R=" + REL_R + " mValidDrawBounds=" + mValidDrawBounds);
-        for (int i = -45; i < 45; i++) {
-            Calibration c = new Calibration();
-            c.calDegree(i * 4);
-            c.isFront = isFrontSide(c);
-            c.calX(mRadius, halfW);
-            c.calL(mCaliLength);
-            mCalibrations.add(c);
-        }
-    }
-
-    private void resetCalibrations() {
-        if (!mValidDrawBounds.isEmpty()) {
-            initCalibrationPath(mValidDrawBounds);
-        }
-    }
-
-    private void initTextDrawBounds(Rect validRect) {
-        int textH = (int)mTextDrawBounds[1], textW = (int)mTextDrawBounds[0];
-        int left = validRect.centerX() - textW / 2;
-        int top = validRect.centerY() - textH / 2;
-        int padT_B = 4;
-        int padL_R = 12;
-        mCenterNumRect.set(left - padL_R, top - padT_B, left + textW + padL_R, top + textH + padT_B);
-
-        String text = getProgressStr(mCurrentDegree);
-        float realTextWidth = mTextPaint.measureText(text, 0, text.length());
-        float textX = mValidDrawBounds.centerX() - realTextWidth/2;
-        float textY = mValidDrawBounds.top + (mValidDrawBounds.height() - textH)/2 - mTextDrawBounds[2];
-        mTextPoint.set(textX, textY);
-    }
-
-    private void initMaskPaint(Rect validRect) {
-        int left = validRect.left;
-        int top = validRect.top;
-        int right = validRect.right;
-        int bottom = validRect.bottom;
-        int centerY = validRect.centerY();
-        float[] pos = {0, 0.125f, 0.25f, 0.375f, 0.5f, 0.625f, 0.75f, 0.875f, 1f};
-        LinearGradient lgAll = new LinearGradient(left, centerY, right, centerY, sTheme.getMaskColors(), pos, Shader.TileMode.CLAMP);
-        mMaskAllPaint.setShader(lgAll);
-        mMaskAllPaint.setStyle(Paint.Style.FILL);
-
-        right = validRect.left + validRect.width() / 7;
-        leftMaskRect.set(left, top, right, bottom);
-        LinearGradient leftShader = new LinearGradient(left, centerY, right, centerY,
-                sTheme.getGradientStartColor(), sTheme.getGradientEndColor(), Shader.TileMode.CLAMP);
-        mLeftMaskPaint.setShader(leftShader);
-        mLeftMaskPaint.setStyle(Paint.Style.FILL);
-
-        left = validRect.right - validRect.width() / 7;
-        right = validRect.right;
-        rightMaskRect.set(left, top, right, bottom);
-        LinearGradient rightShader = new LinearGradient(right, centerY, left, centerY,
-                sTheme.getGradientStartColor(), sTheme.getGradientEndColor(), Shader.TileMode.CLAMP);
-        mRightMaskPaint.setShader(rightShader);
-        mRightMaskPaint.setStyle(Paint.Style.FILL);
-    }
-
-    /** 仅仅更新text draw的x坐标 */
-    private void updateTextBasePoint(String text) {
-        float textWidth = mTextPaint.measureText(text, 0, text.length());
-        mTextPoint.set(mValidDrawBounds.centerX() - textWidth / 2, mTextPoint.y);
-    }
-
-    private String getProgressStr(float progress) {
-        float flag = progress >= 0 ? 0.5f : -0.5f;
-        return String.valueOf((int)(progress + flag) + DU);
-    }
-
-    private ArrayList<PointF> mCalibrationsPoint = new ArrayList<PointF>();
-    private void calCalibrationsPoints() {
-        mCalibrationsPoint.clear();
-        int y = mValidDrawBounds.centerY();
-        for (Calibration c : mCalibrations) {
-            if (c.isFront) {
-                mCalibrationsPoint.add(new PointF((float) c.x, y));
-            }
+        if (animating) {
+            applyProgress(animateTo);
+        }
+        mProgressDispatcher.cancel();
+        if (mRenderer != null) {
+            mRenderer.release();
+        }
+        if (mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
         }
     }
 
-    private Path mCalibrationsPath = new Path();
-    private void calCalibrationsPath() {
-        mCalibrationsPath.reset();
-        int height = mValidDrawBounds.height();
-        for (Calibration c : mCalibrations) {
-            if (c.isFront) {
-                double startY = mValidDrawBounds.top + (height - c.l) / 2;
-                double endY = startY + c.l;
-                mCalibrationsPath.moveTo((float) c.x, (float)startY);
-                mCalibrationsPath.lineTo((float) c.x, (float) endY);
-            }
+    /** 偏移量或角度改变后，更新游标位置和文本位置 */
+    private void onProgressUpdated() {
+        if (mRenderer != null) {
+            mRenderer.onProgressUpdated(mGeometry);
         }
     }
 
-    private boolean isFrontSide(Calibration calibration) {
-        return isFrontSide(calibration.degree);
+    @Override
+    protected void onDraw(Canvas canvas) {
+        if (mFrameMetrics == null) {
+            drawWheel(canvas);
+            return;
+        }
+        long start = System.nanoTime();
+        drawWheel(canvas);
+        recordFrame(start, System.nanoTime());
     }
 
-    private boolean isFrontSide(double degree) {
-        double validDegree = degree % PI_DOU_2;
-        validDegree = (validDegree + PI_DOU_2) % PI_DOU_2;
-        double max = VISIBLE_HALF_DEGREE;
-        boolean isFrontSide = validDegree >= 0 && validDegree <= max;
-        isFrontSide |= validDegree >= (PI_DOU_2 - max) && validDegree <= PI_DOU_2;
-        return isFrontSide;
+    private void drawWheel(Canvas canvas) {
+        if (!mGeometry.hasBounds()) {
+            return;
+        }
+        mRenderer.draw(canvas, mGeometry);
+        if (mShowDirtyRegions && !mDebugDirtyRect.isEmpty()) {
+            canvas.drawRect(mDebugDirtyRect, mDebugDirtyPaint);
+        }
     }
 
-    /** return the point of the text being drawn */
-    private void getTextBounds(CharSequence text, Paint paint, float[] p) {
-        if (p == null || p.length < 3) {
-            return;
+    private void recordFrame(long startNanos, long endNanos) {
+        WheelFrameMetrics metrics = mFrameMetrics;
+        metrics.getDrawDuration().record((endNanos - startNanos) / 1000);
+        if (mPendingInputNanos != 0) {
+            metrics.getTouchToDraw().record((endNanos - mPendingInputNanos) / 1000);
+            mPendingInputNanos = 0;
+        }
+        metrics.getTicksPerFrame().record(mRenderer != null ? mRenderer.getLineCount() : 0);
+        int dispatchCount = mProgressDispatcher.getDispatchCount();
+        metrics.getCallbacksPerFrame().record(dispatchCount - mLastFrameDispatchCount);
+        mLastFrameDispatchCount = dispatchCount;
+        if (mDeliverMetricsOnNextDraw) {
+            mDeliverMetricsOnNextDraw = false;
+            mOnFrameMetricsListener.onFrameMetrics(this, metrics);
+            metrics.reset();
         }
-        float textWidth = paint.measureText(text.toString());
-        Paint.FontMetrics fontM = paint.getFontMetrics();
-        //baseLine：一行文字的底线。
-        //Ascent： 字符顶部到baseLine的距离。
-        //Descent： 字符底部到baseLine的距离。
-        //Leading： 字符行间距。
-        float bottom = fontM.bottom;
-        float top = fontM.top;
-        p[0] = textWidth;// text width
-        p[1] = bottom - top;// text height
-        p[2] = top;
-        Log.i(TAG, "fontM.ascent="+fontM.ascent + " fontM.bottom="+fontM.bottom+" fontM.descent="+fontM.descent+" fontM.top="+fontM.top);
     }
 
-    private class Calibration {
-        /** 圆盘上刻度的长度 */
-        private double l;
-        /** x轴坐标 */
-        private double x;
-        /** 偏离圆盘起点的角度(PI) */
-        private double degree;
-        /** 是否在前面 */
-        private boolean isFront;
+    /**
+     * 设置每帧统计数据的监听，每次拖动结束后回调一次；设为null即关闭统计。
+     */
+    public void setOnFrameMetricsListener(OnFrameMetricsListener listener) {
+        mOnFrameMetricsListener = listener;
+        if (listener == null) {
+            mFrameMetrics = null;
+            mDeliverMetricsOnNextDraw = false;
+        } else if (mFrameMetrics == null) {
+            mFrameMetrics = new WheelFrameMetrics();
+            mPendingInputNanos = 0;
+            mLastFrameDispatchCount = mProgressDispatcher.getDispatchCount();
+        }
+    }
 
-        void calDegree(float d) {
-            degree = (d / 180f * Math.PI) % PI_DOU_2;
+    /**
+     * 只重绘会随进度变化的部分：刻度横条、中间的角度文本以及顶部游标移动前后的范围。
+     */
+    private void invalidateMovingParts() {
+        if (mRenderer == null || !mRenderer.getMovingBounds(mDirtyRect)) {
+            invalidate();
+            return;
         }
+        if (mShowDirtyRegions) {
+            // 把上一次的描边也包含进来，才能擦掉它
+            mTempRect.set(mDirtyRect);
+            mDirtyRect.union(mDebugDirtyRect);
+            mDebugDirtyRect.set(mTempRect);
+        }
+        invalidate(mDirtyRect);
+    }
 
-        void calX(double r, int offsetX) {
-            x = offsetX + r * Math.sin(degree);
+    /** 调试用：用描边标出每次局部重绘的区域 */
+    public void setShowDirtyRegions(boolean show) {
+        if (mShowDirtyRegions == show) {
+            return;
+        }
+        mShowDirtyRegions = show;
+        if (show && mDebugDirtyPaint == null) {
+            mDebugDirtyPaint = new Paint();
+            mDebugDirtyPaint.setStyle(Paint.Style.STROKE);
+            mDebugDirtyPaint.setStrokeWidth(2);
+            mDebugDirtyPaint.setColor(Color.GREEN);
         }
+        mDebugDirtyRect.setEmpty();
+        invalidate();
+    }
+
+    public boolean isShowDirtyRegions() {
+        return mShowDirtyRegions;
+    }
 
-        void calL(int ol) {
-            l = ol;//ol * Math.abs(Math.cos(degree));
+    /** 设置刻度的绘制方式，RENDER_MODE_LAYER 或 RENDER_MODE_CLIP */
+    public void setRenderMode(int renderMode) {
+        if (renderMode != RENDER_MODE_LAYER && renderMode != RENDER_MODE_CLIP) {
+            throw new IllegalArgumentException("Unknown render mode: " + renderMode);
+        }
+        if (mRenderMode != renderMode) {
+            mRenderMode = renderMode;
+            if (mRenderer != null) {
+                mRenderer.setRenderMode(renderMode);
+            }
+            invalidate();
         }
     }
 
-    /** 正三角行游标 */
-    private class TriCursor{
-        /** 游标的中点坐标 */
-        private PointF p;
-        /** 三角形游标的边长 */
-        private float l;
-        /** 三角形的朝向, true 为朝上 */
-        private boolean face;
+    public int getRenderMode() {
+        return mRenderMode;
+    }
 
-        private Path path;
-        private Path srcPath;
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        updateDrawBounds(w, h);
+    }
 
-        void initPath() {
-            if (path == null) {
-                path = new Path();
-                srcPath = new Path();
-            }
-            path.reset();
-            path.moveTo(p.x - l/2, p.y);
-            path.lineTo(p.x + l/2, p.y);
-            float y = face ? p.y - l * SIN60 : p.y + l * SIN60;
-            path.lineTo(p.x, y);
-            srcPath.reset();
-            srcPath.addPath(path);
-        }
-
-        void offsetX(float dx) {
-            if (path != null) {
-                path.offset(dx, 0);
-            }
+    @Override
+    public void setPadding(int left, int top, int right, int bottom) {
+        super.setPadding(left, top, right, bottom);
+        updateDrawBounds(getWidth(), getHeight());
+    }
+
+    @Override
+    public void setPaddingRelative(int start, int top, int end, int bottom) {
+        super.setPaddingRelative(start, top, end, bottom);
+        updateDrawBounds(getWidth(), getHeight());
+    }
+
+    /**
+     * 尺寸或padding改变后重新计算和可绘制区域有关的数据，
+     * 可绘制区域没变时什么都不做，绘制时不再做这些检查
+     */
+    private void updateDrawBounds(int viewW, int viewH) {
+        if (viewW <= 0 || viewH <= 0) {
+            return;
+        }
+        int left = getPaddingLeft(), top = getPaddingTop();
+        int right = viewW - getPaddingRight(), bottom = viewH - getPaddingBottom();
+        if (mGeometry.hasBounds() && mValidDrawBounds.left == left && mValidDrawBounds.top == top
+                && mValidDrawBounds.right == right && mValidDrawBounds.bottom == bottom) {
+            return;
         }
+        mValidDrawBounds.set(left, top, right, bottom);
+        mGeometry.setBounds(mValidDrawBounds.width(), mValidDrawBounds.centerX());
+        mVisualState.invalidate();
+
+        obtainRenderer().setBounds(viewW, viewH, mValidDrawBounds, mGeometry);
+        invalidate();
+    }
 
-        /** view 的中点作为原点，相对原点移动x */
-        void transXTo(float x) {
-            path.reset();
-            path.addPath(srcPath);
-            path.offset(x, 0);
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        Display display = getDisplay();
+        if (display != null && display.getRefreshRate() > 0) {
+            mFrameIntervalMs = 1000f / display.getRefreshRate();
+        }
+        if (mRenderer != null) {
+            mRenderer.reacquire(mGeometry);
         }
     }
 
@@ -548,29 +765,105 @@ public class HorizontalWheelView extends View{
 
     public void setOnSeekBarChangeListener(OnSeekBarChangeListener onSeekBarChangeListener) {
         mOnSeekBarChangeListener = onSeekBarChangeListener;
+        mProgressDispatcher.setListener(onSeekBarChangeListener);
+    }
+
+    private ProgressChannel mProgressChannel;
+
+    /**
+     * 把每次进度变化发布到channel，由它交给后台线程处理，只保留最新的值。
+     * 与 OnSeekBarChangeListener 互不影响，不受分发模式限制
+     */
+    public void setProgressChannel(ProgressChannel channel) {
+        mProgressChannel = channel;
+    }
+
+    public ProgressChannel getProgressChannel() {
+        return mProgressChannel;
     }
 
     /** 获取当前旋转角度 */
     public float getProgress() {
-        return mCurrentDegree;
+        return mGeometry.getCurrentDegree();
     }
 
+    /** 角度没有变化时什么都不做，宿主可以每帧调用而不引起多余的重绘 */
     public void setProgress(float progress) {
-        mCurrentDegree = clamp(progress, mMinDegree, mMaxDegree);
-        calOffsetByDegree(mCurrentDegree);
-        updateTopCursor(mTotalOffsetX);
-        updateTextBasePoint(getProgressStr(mCurrentDegree));
-        if (mTotalOffsetX == 0) {
-            resetCalibrations();
+        setProgress(progress, false);
+    }
+
+    /**
+     * 设置旋转角度
+     *
+     * @param animate 为true时在之后的几帧内过渡到progress，多个圆盘同时动画时共用同一个vsync回调；
+     *                拖动中、没有attach或者还没有布局时直接跳到progress
+     */
+    public void setProgress(float progress, boolean animate) {
+        if (!animate || mTracking || !isAttachedToWindow() || !mGeometry.hasBounds()) {
+            if (mAnimatingProgress) {
+                mAnimatingProgress = false;
+                WheelFrameScheduler.getInstance().cancel(mFrameClient);
+            }
+            applyProgress(progress);
+            return;
+        }
+        // 先限制到范围内，否则超出范围的目标永远不等于当前角度，每次调用都会重新开始动画
+        progress = WheelGeometry.clamp(progress, mGeometry.getMinDegree(), mGeometry.getMaxDegree());
+        float from = mGeometry.getCurrentDegree();
+        if (progress == (mAnimatingProgress ? mAnimateTo : from)) {
+            return;
+        }
+        mAnimatingProgress = true;
+        mAnimateFrom = from;
+        mAnimateTo = progress;
+        mAnimateStartNanos = 0;
+        WheelFrameScheduler.getInstance().schedule(mFrameClient);
+    }
+
+    /** 推进一帧 setProgress 动画，先快后慢，返回是否还需要下一帧 */
+    private boolean onProgressAnimationFrame(long frameTimeNanos) {
+        if (mAnimateStartNanos == 0) {
+            mAnimateStartNanos = frameTimeNanos;
+        }
+        float t = (frameTimeNanos - mAnimateStartNanos) / (ANIMATE_DURATION * 1000000f);
+        if (t >= 1) {
+            mAnimatingProgress = false;
+            applyProgress(mAnimateTo);
+            return false;
+        }
+        float eased = 1 - (1 - t) * (1 - t);
+        applyProgress(mAnimateFrom + (mAnimateTo - mAnimateFrom) * eased);
+        return true;
+    }
+
+    private void applyProgress(float progress) {
+        if (!mGeometry.setDegree(progress)) {
+            return;
+        }
+        publishToChannel(mGeometry.getCurrentDegree());
+        if (updateVisualState()) {
+            onProgressUpdated();
+            invalidateMovingParts();
         }
-        invalidate();
     }
 
-    private void calOffsetByDegree(float degree) {
-        float ratio = degree / mMaxDegree;
-        int halfW = mValidDrawBounds.width() / 2;
-        mTotalOffsetX = clamp(halfW * ratio, -halfW, halfW);
-        mTotalOffsetX = -mTotalOffsetX;
+    /**
+     * 不在前台时每隔divisor个vsync才推进一次惯性滚动、回弹和 setProgress 动画，默认为1即不降频。
+     * 正在拖动、有焦点或者被 {@link #setSelected} 选中的圆盘算作前台
+     */
+    public void setBackgroundFrameDivisor(int divisor) {
+        if (divisor < 1) {
+            throw new IllegalArgumentException("Frame divisor must be at least 1: " + divisor);
+        }
+        mBackgroundFrameDivisor = divisor;
+    }
+
+    public int getBackgroundFrameDivisor() {
+        return mBackgroundFrameDivisor;
+    }
+
+    private boolean isInForeground() {
+        return mTracking || isFocused() || isSelected();
     }
 
     public interface OnSeekBarChangeListener {
@@ -579,6 +872,11 @@ public class HorizontalWheelView extends View{
         void onStopTrackingTouch(HorizontalWheelView seekBar);
     }
 
+    /** 每次拖动结束后回调这次拖动期间的每帧统计，metrics在回调返回后会被清空复用 */
+    public interface OnFrameMetricsListener {
+        void onFrameMetrics(HorizontalWheelView view, WheelFrameMetrics metrics);
+    }
+
     enum Theme{
         WHITE(Color.WHITE, Color.BLACK & 0xb2000000, Color.BLACK, Color.WHITE, Color.BLACK,
                 new int[]{0x7fffffff, 0x75ffffff, 0x5affffff, 0x30ffffff, 0x00ffffff, 0x30ffffff, 0x5affffff, 0x75ffffff, 0x7fffffff},
@@ -0,0 +1,184 @@
+package com.lq.horizontalwheelview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Typeface;
+
+/**
+ * 中间角度文本的字形图集。
+ * 文本只会由数字、负号、小数点和"°"组成，预先把这些字符画到一张 ALPHA_8 的bitmap上，
+ * 并记下每个字符的宽度；拖动时测量只是查表相加，绘制只是逐个字符 drawBitmap，不再排版文字。
+ * 图集只保存透明度，颜色取绘制时paint的颜色，所以切换主题不需要重建；
+ * 字号和字体相同的圆盘通过 {@link #acquire} 共享同一个图集，
+ * 主线程的 {@link HorizontalWheelView} 和渲染线程的 {@link HorizontalWheelTextureView} 可能同时使用，
+ * 所以图集建好后不再修改，绘制用的临时Rect由调用者提供。
+ */
+final class LabelAtlas {
+
+    /** 没有view使用时最多保留的图集数 */
+    static final int MAX_IDLE = 2;
+
+    private static final SharedCache<Key, LabelAtlas> sCache = new SharedCache<Key, LabelAtlas>(MAX_IDLE) {
+        @Override
+        protected LabelAtlas create(Key key) {
+            return new LabelAtlas(key);
+        }
+
+        @Override
+        protected void destroy(LabelAtlas value) {
+            value.recycle();
+        }
+    };
+
+    static final String GLYPHS = "0123456789-." + ProgressLabels.DU;
+
+    /** 每个字符左右多留的像素，避免抗锯齿的边缘被裁掉 */
+    private static final int PAD = 2;
+
+    private Bitmap mBitmap;
+    private final float[] mAdvances = new float[GLYPHS.length()];
+    /** 每个字符在图集中的起始x */
+    private final int[] mCellLeft = new int[GLYPHS.length()];
+    private final int[] mCellWidth = new int[GLYPHS.length()];
+    /** 图集顶部相对基线的距离，即 FontMetrics.top 取整 */
+    private final int mTop;
+
+    private final Key mKey;
+
+    private LabelAtlas(Key key) {
+        mKey = key;
+        Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        textPaint.setTextSize(key.textSize);
+        textPaint.setTypeface(key.typeface);
+        textPaint.getTextWidths(GLYPHS, mAdvances);
+        Paint.FontMetricsInt fm = textPaint.getFontMetricsInt();
+        mTop = fm.top;
+        int height = fm.bottom - fm.top;
+        int width = 0;
+        for (int i = 0; i < mAdvances.length; i++) {
+            mCellLeft[i] = width;
+            mCellWidth[i] = (int)Math.ceil(mAdvances[i]) + PAD * 2;
+            width += mCellWidth[i];
+        }
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        mBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ALPHA_8);
+        Canvas canvas = new Canvas(mBitmap);
+        textPaint.setColor(0xff000000);
+        for (int i = 0; i < GLYPHS.length(); i++) {
+            canvas.drawText(GLYPHS, i, i + 1, mCellLeft[i] + PAD, -mTop, textPaint);
+        }
+    }
+
+    /** 获取与paint字号、字体对应的共享图集，引用计数加1 */
+    static LabelAtlas acquire(Paint textPaint) {
+        return sCache.acquire(new Key(textPaint.getTextSize(), textPaint.getTypeface()));
+    }
+
+    static void release(LabelAtlas atlas) {
+        if (atlas != null) {
+            sCache.release(atlas.mKey);
+        }
+    }
+
+    /** 是否与paint的字号、字体一致 */
+    boolean matches(Paint textPaint) {
+        return mKey.textSize == textPaint.getTextSize() && mKey.typeface == textPaint.getTypeface();
+    }
+
+    /** 文本的宽度，等于各字符宽度之和 */
+    float measure(CharSequence text) {
+        float width = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            int glyph = indexOf(text.charAt(i));
+            if (glyph >= 0) {
+                width += mAdvances[glyph];
+            }
+        }
+        return width;
+    }
+
+    /** 是否所有字符都在图集中 */
+    boolean canDraw(CharSequence text) {
+        for (int i = 0, n = text.length(); i < n; i++) {
+            if (indexOf(text.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return mBitmap != null;
+    }
+
+    /**
+     * 在(x, baseline)处绘制文本，效果同 drawText
+     *
+     * @param paint 用它的颜色给字形着色
+     * @param src 调用者自己的临时Rect，不能和其它线程共用
+     * @param dst 同上
+     */
+    void draw(Canvas canvas, CharSequence text, float x, float baseline, Paint paint, Rect src, Rect dst) {
+        int top = Math.round(baseline) + mTop;
+        int bottom = top + mBitmap.getHeight();
+        float pen = x;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            int glyph = indexOf(text.charAt(i));
+            int left = Math.round(pen) - PAD;
+            src.set(mCellLeft[glyph], 0, mCellLeft[glyph] + mCellWidth[glyph], mBitmap.getHeight());
+            dst.set(left, top, left + mCellWidth[glyph], bottom);
+            canvas.drawBitmap(mBitmap, src, dst, paint);
+            pen += mAdvances[glyph];
+        }
+    }
+
+    private void recycle() {
+        if (mBitmap != null) {
+            mBitmap.recycle();
+            mBitmap = null;
+        }
+    }
+
+    static int indexOf(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        switch (c) {
+            case '-':
+                return 10;
+            case '.':
+                return 11;
+            case '°':
+                return 12;
+            default:
+                return -1;
+        }
+    }
+
+    static final class Key {
+        final float textSize;
+        final Typeface typeface;
+
+        Key(float textSize, Typeface typeface) {
+            this.textSize = textSize;
+            this.typeface = typeface;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return textSize == key.textSize && typeface == key.typeface;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Float.floatToIntBits(textSize) + (typeface != null ? typeface.hashCode() : 0);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.lq.horizontalwheelview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Shader;
+
+/**
+ * 圆盘上层的遮罩：左右两侧的渐变和覆盖整个view的渐变。
+ * 三层遮罩只和尺寸、主题有关，预先合成到一张bitmap上，
+ * 每帧只需要一次 drawBitmap；尺寸或主题变化时才重新合成。
+ */
+final class MaskOverlay {
+
+    private static final float[] MASK_POSITIONS = {0, 0.125f, 0.25f, 0.375f, 0.5f, 0.625f, 0.75f, 0.875f, 1f};
+
+    private Bitmap mBitmap;
+    private final Rect mValidBounds = new Rect();
+    private HorizontalWheelView.Theme mTheme;
+
+    /** 尺寸和主题没变时直接复用，否则重新合成 */
+    void ensure(int viewW, int viewH, Rect validRect, HorizontalWheelView.Theme theme) {
+        if (mBitmap != null && mBitmap.getWidth() == viewW && mBitmap.getHeight() == viewH
+                && mValidBounds.equals(validRect) && mTheme == theme) {
+            return;
+        }
+        build(viewW, viewH, validRect, theme);
+    }
+
+    void draw(Canvas canvas) {
+        if (mBitmap != null) {
+            canvas.drawBitmap(mBitmap, 0, 0, null);
+        }
+    }
+
+    void release() {
+        if (mBitmap != null) {
+            mBitmap.recycle();
+            mBitmap = null;
+        }
+        mTheme = null;
+    }
+
+    private void build(int viewW, int viewH, Rect validRect, HorizontalWheelView.Theme theme) {
+        if (viewW <= 0 || viewH <= 0) {
+            release();
+            return;
+        }
+        if (mBitmap != null && mBitmap.getWidth() == viewW && mBitmap.getHeight() == viewH) {
+            mBitmap.eraseColor(0);
+        } else {
+            if (mBitmap != null) {
+                mBitmap.recycle();
+            }
+            mBitmap = Bitmap.createBitmap(viewW, viewH, Bitmap.Config.ARGB_8888);
+        }
+        mValidBounds.set(validRect);
+        mTheme = theme;
+
+        Canvas canvas = new Canvas(mBitmap);
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setStyle(Paint.Style.FILL);
+        int left = validRect.left;
+        int top = validRect.top;
+        int right = validRect.right;
+        int bottom = validRect.bottom;
+        int centerY = validRect.centerY();
+
+        // 按原来的顺序叠加：左侧、右侧、整体
+        right = validRect.left + validRect.width() / 7;
+        paint.setShader(new LinearGradient(left, centerY, right, centerY,
+                theme.getGradientStartColor(), theme.getGradientEndColor(), Shader.TileMode.CLAMP));
+        canvas.drawRect(left, top, right, bottom, paint);
+
+        left = validRect.right - validRect.width() / 7;
+        right = validRect.right;
+        paint.setShader(new LinearGradient(right, centerY, left, centerY,
+                theme.getGradientStartColor(), theme.getGradientEndColor(), Shader.TileMode.CLAMP));
+        canvas.drawRect(left, top, right, bottom, paint);
+
+        paint.setShader(new LinearGradient(validRect.left, centerY, validRect.right, centerY,
+                theme.getMaskColors(), MASK_POSITIONS, Shader.TileMode.CLAMP));
+        canvas.drawRect(0, 0, viewW, viewH, paint);
+    }
+}
@@ -0,0 +1,144 @@
+package com.lq.horizontalwheelview;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 把圆盘的角度交给调用方提供的executor，只保留最新的值。
+ * 发布只是一次CAS，不会阻塞触摸处理；consumer同一时间只处理一个值，
+ * 处理期间发布的值只保留最后一个，没被取走的旧值直接丢弃。
+ * consumer可以通过 {@link Delivery#isSuperseded()} 得知正在处理的值已经过时，提前结束耗时的工作。
+ */
+public final class ProgressChannel {
+
+    /** 在executor的线程中被依次调用，不会并发 */
+    public interface Consumer {
+        /**
+         * @param delivery 这次交付的状态，只在本次回调中有效
+         */
+        void onProgress(float progress, Delivery delivery);
+    }
+
+    /** 一次交付，用来检查是否已经有更新的值 */
+    public final class Delivery {
+        private int mSequence;
+
+        /** 这个值交付之后是否又发布了新的值 */
+        public boolean isSuperseded() {
+            return sequenceOf(mLatest.get()) != mSequence;
+        }
+    }
+
+    private final Executor mExecutor;
+    private final Consumer mConsumer;
+
+    /** 高32位是序号，低32位是角度的float位 */
+    private final AtomicLong mLatest = new AtomicLong();
+    /** 是否已经向executor提交了还没执行完的任务 */
+    private final AtomicBoolean mScheduled = new AtomicBoolean();
+    private volatile boolean mClosed;
+
+    private final AtomicLong mPublishedCount = new AtomicLong();
+    private final AtomicLong mDeliveredCount = new AtomicLong();
+
+    /** 以下只在executor的线程中使用 */
+    private int mDeliveredSequence;
+    private final Delivery mDelivery = new Delivery();
+
+    private final Runnable mDrain = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    public ProgressChannel(Executor executor, Consumer consumer) {
+        if (executor == null || consumer == null) {
+            throw new IllegalArgumentException("executor and consumer must not be null");
+        }
+        mExecutor = executor;
+        mConsumer = consumer;
+    }
+
+    /** 发布最新的角度，任意线程都可以调用 */
+    public void publish(float progress) {
+        if (mClosed) {
+            return;
+        }
+        long state;
+        long next;
+        do {
+            state = mLatest.get();
+            next = pack(sequenceOf(state) + 1, progress);
+        } while (!mLatest.compareAndSet(state, next));
+        mPublishedCount.incrementAndGet();
+        schedule();
+    }
+
+    /** 不再交付新的值，正在处理的值会被标记为过时 */
+    public void close() {
+        mClosed = true;
+        long state;
+        do {
+            state = mLatest.get();
+        } while (!mLatest.compareAndSet(state, pack(sequenceOf(state) + 1, valueOf(state))));
+    }
+
+    public boolean isClosed() {
+        return mClosed;
+    }
+
+    /** 发布的次数 */
+    public long getPublishedCount() {
+        return mPublishedCount.get();
+    }
+
+    /** 实际交给consumer的次数，与发布次数的差就是被丢弃的旧值 */
+    public long getDeliveredCount() {
+        return mDeliveredCount.get();
+    }
+
+    private void schedule() {
+        if (mScheduled.compareAndSet(false, true)) {
+            try {
+                mExecutor.execute(mDrain);
+            } catch (RejectedExecutionException e) {
+                mScheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    private void drain() {
+        long state = mLatest.get();
+        int sequence = sequenceOf(state);
+        try {
+            if (!mClosed && sequence != mDeliveredSequence) {
+                mDeliveredSequence = sequence;
+                mDelivery.mSequence = sequence;
+                mDeliveredCount.incrementAndGet();
+                mConsumer.onProgress(valueOf(state), mDelivery);
+            }
+        } finally {
+            mScheduled.set(false);
+            // 处理期间又发布了新的值，再提交一次
+            if (!mClosed && sequenceOf(mLatest.get()) != mDeliveredSequence) {
+                schedule();
+            }
+        }
+    }
+
+    private static long pack(int sequence, float value) {
+        return ((long)sequence << 32) | (Float.floatToRawIntBits(value) & 0xffffffffL);
+    }
+
+    private static int sequenceOf(long state) {
+        return (int)(state >>> 32);
+    }
+
+    private static float valueOf(long state) {
+        return Float.intBitsToFloat((int)state);
+    }
+}
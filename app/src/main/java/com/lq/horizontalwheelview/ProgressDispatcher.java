@@ -0,0 +1,141 @@
+package com.lq.horizontalwheelview;
+
+/**
+ * 把进度变化回调给 {@link HorizontalWheelView.OnSeekBarChangeListener}。
+ * 根据分发模式，回调可以立即发出、合并到每帧一次、只在取整后的角度变化时发出，
+ * 或者只在拖动结束时发出一次；同时统计收到的进度事件数和实际回调数。
+ */
+final class ProgressDispatcher implements Runnable {
+
+    private final HorizontalWheelView mView;
+    private HorizontalWheelView.OnSeekBarChangeListener mListener;
+    private int mMode = HorizontalWheelView.DISPATCH_IMMEDIATE;
+
+    /** 等待在下一帧发出的最新进度 */
+    private float mPendingProgress;
+    private boolean mPosted;
+    private boolean mHasPending;
+
+    /** 最后一次回调出去的进度 */
+    private float mLastDelivered;
+    private boolean mHasDelivered;
+
+    private int mEventCount;
+    private int mDispatchCount;
+
+    ProgressDispatcher(HorizontalWheelView view) {
+        mView = view;
+    }
+
+    void setListener(HorizontalWheelView.OnSeekBarChangeListener listener) {
+        mListener = listener;
+    }
+
+    void setMode(int mode) {
+        if (mode != mMode) {
+            cancel();
+            mMode = mode;
+        }
+    }
+
+    int getMode() {
+        return mMode;
+    }
+
+    int getEventCount() {
+        return mEventCount;
+    }
+
+    int getDispatchCount() {
+        return mDispatchCount;
+    }
+
+    void resetCounters() {
+        mEventCount = 0;
+        mDispatchCount = 0;
+    }
+
+    /** 一次新的拖动开始，清掉上一次拖动的记录 */
+    void onStartTracking() {
+        cancel();
+        mHasDelivered = false;
+    }
+
+    /** 每次进度变化时调用 */
+    void onProgressChanged(float progress) {
+        mEventCount++;
+        switch (mMode) {
+            case HorizontalWheelView.DISPATCH_IMMEDIATE:
+                deliver(progress);
+                break;
+            case HorizontalWheelView.DISPATCH_COMMIT_ONLY:
+                mPendingProgress = progress;
+                mHasPending = true;
+                break;
+            default:
+                mPendingProgress = progress;
+                mHasPending = true;
+                if (!mPosted) {
+                    mPosted = true;
+                    mView.postOnAnimation(this);
+                }
+                break;
+        }
+    }
+
+    /** 拖动结束时调用，把还没有发出的最终进度立即发出 */
+    void flush(float progress) {
+        if (mMode == HorizontalWheelView.DISPATCH_IMMEDIATE) {
+            return;
+        }
+        boolean hadPending = mHasPending;
+        cancel();
+        if (mMode == HorizontalWheelView.DISPATCH_COMMIT_ONLY) {
+            if (hadPending) {
+                forceDeliver(progress);
+            }
+        } else if (!mHasDelivered || mLastDelivered != progress) {
+            // 最终角度取整后可能与上次回调相同（比如12.96和13），也一定要发出去
+            forceDeliver(progress);
+        }
+    }
+
+    /** 丢弃还没有发出的进度 */
+    void cancel() {
+        if (mPosted) {
+            mView.removeCallbacks(this);
+            mPosted = false;
+        }
+        mHasPending = false;
+    }
+
+    @Override
+    public void run() {
+        mPosted = false;
+        if (mHasPending) {
+            mHasPending = false;
+            deliver(mPendingProgress);
+        }
+    }
+
+    private void deliver(float progress) {
+        if (mMode == HorizontalWheelView.DISPATCH_ON_CHANGE && mHasDelivered
+                && mView.quantizeProgress(progress) == mView.quantizeProgress(mLastDelivered)) {
+            return;
+        }
+        forceDeliver(progress);
+    }
+
+    private void forceDeliver(float progress) {
+        mLastDelivered = progress;
+        mHasDelivered = true;
+        if (mListener != null) {
+            mDispatchCount++;
+            mListener.onProgressChanged(mView, progress, false);
+        }
+    }
+
+    static boolean isValidMode(int mode) {
+        return mode >= HorizontalWheelView.DISPATCH_IMMEDIATE && mode <= HorizontalWheelView.DISPATCH_COMMIT_ONLY;
+    }
+}
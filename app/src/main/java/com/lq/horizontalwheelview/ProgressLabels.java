@@ -0,0 +1,161 @@
+package com.lq.horizontalwheelview;
+
+/**
+ * 角度文本表，覆盖 [min, max] 内每个精度整数倍的角度。
+ * 文本不多时在构造时全部生成，之后拖动和绘制时直接查表；
+ * 文本太多时不缓存，每次写到同一个字符缓冲区里，同样不分配内存。
+ * 只能在一个线程上使用。
+ */
+final class ProgressLabels {
+
+    static final String DU = "°";
+
+    /** 数量不超过这个值时在构造时就全部生成 */
+    private static final int EAGER_LIMIT = 1024;
+    /** 负号、19位整数、小数点、3位小数和"°" */
+    private static final int MAX_LENGTH = 25;
+
+    private final float mMin;
+    private final float mMax;
+    private final float mResolution;
+    /** 小数位数，由精度决定 */
+    private final int mDecimals;
+    private final long mDecimalScale;
+    /** min对应精度的多少倍 */
+    private final long mMinUnits;
+    private final int mCount;
+    /** 数量超过 EAGER_LIMIT 时为null */
+    private final String[] mLabels;
+    private final Scratch mScratch = new Scratch();
+
+    ProgressLabels(float min, float max, float resolution) {
+        mMin = Math.min(min, max);
+        mMax = Math.max(min, max);
+        mResolution = resolution;
+        mDecimals = decimalsOf(resolution);
+        long scale = 1;
+        for (int i = 0; i < mDecimals; i++) {
+            scale *= 10;
+        }
+        mDecimalScale = scale;
+        mMinUnits = round(mMin / resolution);
+        long maxUnits = round(mMax / resolution);
+        mCount = (int)(maxUnits - mMinUnits + 1);
+        if (mCount <= EAGER_LIMIT) {
+            mLabels = new String[mCount];
+            for (int i = 0; i < mCount; i++) {
+                mLabels[i] = formatString(mMinUnits + i);
+            }
+        } else {
+            mLabels = null;
+        }
+    }
+
+    boolean covers(float min, float max, float resolution) {
+        return mMin == Math.min(min, max) && mMax == Math.max(min, max) && mResolution == resolution;
+    }
+
+    /**
+     * 获取取整到精度后的角度文本，超出范围的取边界值。
+     * 文本太多时返回的是内部的缓冲区，内容在下一次调用前有效
+     */
+    CharSequence get(float progress) {
+        long index = round(progress / mResolution) - mMinUnits;
+        if (index < 0) {
+            index = 0;
+        } else if (index >= mCount) {
+            index = mCount - 1;
+        }
+        if (mLabels != null) {
+            return mLabels[(int)index];
+        }
+        mScratch.length = format(mMinUnits + index, mScratch.chars);
+        return mScratch;
+    }
+
+    /** 最长的文本，用来测量文本区域的大小 */
+    String getWidest() {
+        String min = formatString(round(mMin / mResolution));
+        String max = formatString(round(mMax / mResolution));
+        return max.length() > min.length() ? max : min;
+    }
+
+    private String formatString(long units) {
+        char[] chars = new char[MAX_LENGTH];
+        return new String(chars, 0, format(units, chars));
+    }
+
+    /** units个精度对应的文本写到out中，返回长度；用整数运算避免出现"-0.0"之类的结果 */
+    private int format(long units, char[] out) {
+        long scaled = Math.round(units * (double)mResolution * mDecimalScale);
+        int length = 0;
+        if (scaled < 0) {
+            out[length++] = '-';
+            scaled = -scaled;
+        }
+        length = appendDigits(out, length, scaled / mDecimalScale, 1);
+        if (mDecimals > 0) {
+            out[length++] = '.';
+            length = appendDigits(out, length, scaled % mDecimalScale, mDecimals);
+        }
+        out[length++] = DU.charAt(0);
+        return length;
+    }
+
+    /** 把value写成至少minDigits位的十进制数，不够时前面补0，返回结束位置 */
+    private static int appendDigits(char[] out, int start, long value, int minDigits) {
+        int digits = 1;
+        for (long v = value / 10; v > 0; v /= 10) {
+            digits++;
+        }
+        digits = Math.max(digits, minDigits);
+        for (int i = start + digits - 1; i >= start; i--) {
+            out[i] = (char)('0' + value % 10);
+            value /= 10;
+        }
+        return start + digits;
+    }
+
+    /** 精度需要的小数位数，最多3位 */
+    static int decimalsOf(float resolution) {
+        for (int decimals = 0; decimals < 3; decimals++) {
+            double scaled = resolution * Math.pow(10, decimals);
+            if (Math.abs(scaled - Math.rint(scaled)) < 1e-4) {
+                return decimals;
+            }
+        }
+        return 3;
+    }
+
+    /** 与原来的 getProgressStr 保持一致：远离0方向四舍五入 */
+    static long round(float value) {
+        float flag = value >= 0 ? 0.5f : -0.5f;
+        return (long)(value + flag);
+    }
+
+    /** 不缓存时复用的文本 */
+    private static final class Scratch implements CharSequence {
+        final char[] chars = new char[MAX_LENGTH];
+        int length;
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return chars[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(chars, start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, 0, length);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.lq.horizontalwheelview;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 进程内共享的只读资源缓存。
+ * 相同key的资源只创建一次，按引用计数共享；没有引用的资源先保留在LRU中，
+ * 之后同样配置的view可以直接复用，超过 maxIdle 个时销毁最久未用的。
+ */
+abstract class SharedCache<K, V> {
+
+    private final int mMaxIdle;
+    private final HashMap<K, V> mValues = new HashMap<K, V>();
+    private final HashMap<K, Integer> mRefs = new HashMap<K, Integer>();
+    /** 没有引用的资源，按访问顺序排列 */
+    private final LinkedHashMap<K, V> mIdle = new LinkedHashMap<K, V>(8, 0.75f, true);
+
+    SharedCache(int maxIdle) {
+        mMaxIdle = maxIdle;
+    }
+
+    protected abstract V create(K key);
+
+    protected abstract void destroy(V value);
+
+    synchronized V acquire(K key) {
+        V value = mValues.get(key);
+        if (value == null) {
+            value = create(key);
+            mValues.put(key, value);
+        }
+        Integer refs = mRefs.get(key);
+        mRefs.put(key, refs == null ? 1 : refs + 1);
+        mIdle.remove(key);
+        return value;
+    }
+
+    synchronized void release(K key) {
+        Integer refs = mRefs.get(key);
+        if (refs == null) {
+            return;
+        }
+        if (refs > 1) {
+            mRefs.put(key, refs - 1);
+            return;
+        }
+        mRefs.remove(key);
+        mIdle.put(key, mValues.get(key));
+        trim(mMaxIdle);
+    }
+
+    /** 销毁所有没有引用的资源 */
+    synchronized void evictIdle() {
+        trim(0);
+    }
+
+    synchronized int getReferenceCount(K key) {
+        Integer refs = mRefs.get(key);
+        return refs == null ? 0 : refs;
+    }
+
+    synchronized int size() {
+        return mValues.size();
+    }
+
+    private void trim(int maxIdle) {
+        Iterator<Map.Entry<K, V>> it = mIdle.entrySet().iterator();
+        while (mIdle.size() > maxIdle && it.hasNext()) {
+            Map.Entry<K, V> eldest = it.next();
+            it.remove();
+            mValues.remove(eldest.getKey());
+            destroy(eldest.getValue());
+        }
+    }
+}
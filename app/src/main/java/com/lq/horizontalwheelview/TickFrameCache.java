@@ -0,0 +1,96 @@
+package com.lq.horizontalwheelview;
+
+/**
+ * 可见刻度的缓存：按量化后的旋转量保存算好的刻度x坐标和长短，最多保存固定数量，淘汰最久没用到的。
+ * 所有缓冲区在布局时预先分配，拖动中命中或淘汰都不分配内存。
+ * 来回拖动时同样的位置会反复出现，命中时直接复用上一次的结果。
+ */
+final class TickFrameCache {
+
+    /** 一组可见刻度 */
+    static final class Frame {
+        private long mKey;
+        private boolean mValid;
+        private int mLastUse;
+
+        /** 第一个可见刻度的序号 */
+        long firstIndex;
+        int count;
+        float[] x;
+        boolean[] major;
+    }
+
+    private final Frame[] mFrames;
+    private int mCapacity;
+    private int mClock;
+    private int mHits;
+    private int mMisses;
+
+    TickFrameCache(int size) {
+        mFrames = new Frame[size];
+        for (int i = 0; i < size; i++) {
+            Frame frame = new Frame();
+            frame.x = new float[0];
+            frame.major = new boolean[0];
+            mFrames[i] = frame;
+        }
+    }
+
+    /** 布局改变后清空缓存，缓冲区只在容量不够时重新分配 */
+    void reset(int capacity) {
+        if (capacity > mCapacity) {
+            for (Frame frame : mFrames) {
+                frame.x = new float[capacity];
+                frame.major = new boolean[capacity];
+            }
+            mCapacity = capacity;
+        }
+        for (Frame frame : mFrames) {
+            frame.mValid = false;
+        }
+    }
+
+    /** 每组最多的刻度数 */
+    int getCapacity() {
+        return mCapacity;
+    }
+
+    /** 查找key对应的刻度，没有时返回null */
+    Frame get(long key) {
+        for (Frame frame : mFrames) {
+            if (frame.mValid && frame.mKey == key) {
+                frame.mLastUse = ++mClock;
+                mHits++;
+                return frame;
+            }
+        }
+        mMisses++;
+        return null;
+    }
+
+    /** 淘汰最久没用到的一组，交给调用者按key重新计算 */
+    Frame obtain(long key) {
+        Frame victim = mFrames[0];
+        for (Frame frame : mFrames) {
+            if (!frame.mValid) {
+                victim = frame;
+                break;
+            }
+            if (frame.mLastUse - victim.mLastUse < 0) {
+                victim = frame;
+            }
+        }
+        victim.mKey = key;
+        victim.mValid = true;
+        victim.mLastUse = ++mClock;
+        return victim;
+    }
+
+    int getHitCount() {
+        return mHits;
+    }
+
+    int getMissCount() {
+        return mMisses;
+    }
+}
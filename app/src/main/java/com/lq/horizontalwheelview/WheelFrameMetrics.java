@@ -0,0 +1,136 @@
+package com.lq.horizontalwheelview;
+
+/**
+ * 一次拖动（从按下到回弹结束）期间每一帧的统计数据。
+ * 所有直方图的桶在创建时分配好，记录时不再分配内存。
+ */
+public final class WheelFrameMetrics {
+
+    /** onDraw 的耗时，单位微秒 */
+    private final Histogram mDrawDuration = new Histogram();
+    /** 收到触摸事件到这一帧绘制完成的耗时，单位微秒 */
+    private final Histogram mTouchToDraw = new Histogram();
+    /** 每帧绘制的刻度数 */
+    private final Histogram mTicksPerFrame = new Histogram();
+    /** 每帧的 onProgressChanged 回调次数 */
+    private final Histogram mCallbacksPerFrame = new Histogram();
+
+    WheelFrameMetrics() {
+    }
+
+    public Histogram getDrawDuration() {
+        return mDrawDuration;
+    }
+
+    public Histogram getTouchToDraw() {
+        return mTouchToDraw;
+    }
+
+    public Histogram getTicksPerFrame() {
+        return mTicksPerFrame;
+    }
+
+    public Histogram getCallbacksPerFrame() {
+        return mCallbacksPerFrame;
+    }
+
+    /** 统计的帧数 */
+    public int getFrameCount() {
+        return mDrawDuration.getCount();
+    }
+
+    void reset() {
+        mDrawDuration.reset();
+        mTouchToDraw.reset();
+        mTicksPerFrame.reset();
+        mCallbacksPerFrame.reset();
+    }
+
+    /**
+     * 固定大小的直方图，第i个桶统计 [2^(i-1), 2^i) 之间的值，第0个桶统计0。
+     */
+    public static final class Histogram {
+
+        public static final int BUCKET_COUNT = 32;
+
+        private final int[] mBuckets = new int[BUCKET_COUNT];
+        private int mCount;
+        private long mSum;
+        private long mMin = Long.MAX_VALUE;
+        private long mMax;
+
+        Histogram() {
+        }
+
+        void record(long value) {
+            if (value < 0) {
+                value = 0;
+            }
+            mBuckets[bucketOf(value)]++;
+            mCount++;
+            mSum += value;
+            if (value < mMin) {
+                mMin = value;
+            }
+            if (value > mMax) {
+                mMax = value;
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                mBuckets[i] = 0;
+            }
+            mCount = 0;
+            mSum = 0;
+            mMin = Long.MAX_VALUE;
+            mMax = 0;
+        }
+
+        public int getCount() {
+            return mCount;
+        }
+
+        public long getMin() {
+            return mCount == 0 ? 0 : mMin;
+        }
+
+        public long getMax() {
+            return mMax;
+        }
+
+        public double getMean() {
+            return mCount == 0 ? 0 : (double) mSum / mCount;
+        }
+
+        public int getBucketCount(int bucket) {
+            return mBuckets[bucket];
+        }
+
+        /** 第bucket个桶的上界（不包含） */
+        public static long getBucketUpperBound(int bucket) {
+            return bucket == 0 ? 1 : 1L << bucket;
+        }
+
+        /** 近似的百分位数：返回包含该百分位的桶的上界，不超过最大值 */
+        public long getPercentile(float percentile) {
+            if (mCount == 0) {
+                return 0;
+            }
+            long target = (long) Math.ceil(mCount * percentile / 100f);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += mBuckets[i];
+                if (seen >= target && mBuckets[i] > 0) {
+                    return Math.min(getBucketUpperBound(i) - 1, mMax);
+                }
+            }
+            return mMax;
+        }
+
+        static int bucketOf(long value) {
+            int bucket = 64 - Long.numberOfLeadingZeros(value);
+            return bucket < BUCKET_COUNT ? bucket : BUCKET_COUNT - 1;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.lq.horizontalwheelview;
+
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+/**
+ * 同一线程上所有圆盘共用的帧回调：有圆盘在动画时每个vsync只注册一次 Choreographer 回调，
+ * 在这一次回调里依次推进所有圆盘的惯性滚动、回弹和 setProgress 动画。
+ * 不在前台的圆盘可以降低帧率，每隔几个vsync才推进一次。
+ * 只能在有Looper的线程使用，一般是主线程。
+ */
+final class WheelFrameScheduler implements Choreographer.FrameCallback {
+
+    interface Client {
+        /** 推进一帧，返回是否还需要下一帧 */
+        boolean doAnimationFrame(long frameTimeNanos);
+
+        /** 每隔几个vsync推进一次，1表示每帧都推进 */
+        int getFrameDivisor();
+    }
+
+    private static final ThreadLocal<WheelFrameScheduler> sInstance = new ThreadLocal<WheelFrameScheduler>() {
+        @Override
+        protected WheelFrameScheduler initialValue() {
+            return new WheelFrameScheduler();
+        }
+    };
+
+    /** 回调过程中取消的client先置为null，回调结束后再移除 */
+    private final ArrayList<Client> mClients = new ArrayList<Client>();
+    private boolean mPosted;
+    private boolean mDispatching;
+    /** 已经处理的vsync数，用来决定降频的client这一帧是否推进 */
+    private long mFrameCount;
+
+    private WheelFrameScheduler() {
+    }
+
+    /** 当前线程的实例 */
+    static WheelFrameScheduler getInstance() {
+        return sInstance.get();
+    }
+
+    /** 从下一个vsync开始每帧推进client，直到它返回false或者被取消 */
+    void schedule(Client client) {
+        if (!mClients.contains(client)) {
+            mClients.add(client);
+        }
+        if (!mPosted) {
+            mPosted = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    void cancel(Client client) {
+        int index = mClients.indexOf(client);
+        if (index < 0) {
+            return;
+        }
+        if (mDispatching) {
+            mClients.set(index, null);
+            return;
+        }
+        mClients.remove(index);
+        if (mClients.isEmpty() && mPosted) {
+            // 没有需要推进的圆盘了，不再等待下一个vsync
+            mPosted = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+
+    /** 正在动画的client数 */
+    int getClientCount() {
+        int count = 0;
+        for (int i = 0; i < mClients.size(); i++) {
+            if (mClients.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mPosted = false;
+        mFrameCount++;
+        mDispatching = true;
+        try {
+            // 回调中新加入的client从下一帧开始推进
+            for (int i = 0, size = mClients.size(); i < size; i++) {
+                Client client = mClients.get(i);
+                if (client == null) {
+                    continue;
+                }
+                int divisor = client.getFrameDivisor();
+                if (divisor > 1 && mFrameCount % divisor != 0) {
+                    continue;
+                }
+                if (!client.doAnimationFrame(frameTimeNanos) && mClients.get(i) == client) {
+                    mClients.set(i, null);
+                }
+            }
+        } finally {
+            mDispatching = false;
+            for (int i = mClients.size() - 1; i >= 0; i--) {
+                if (mClients.get(i) == null) {
+                    mClients.remove(i);
+                }
+            }
+        }
+        if (!mClients.isEmpty() && !mPosted) {
+            mPosted = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package com.lq.horizontalwheelview;
+
+/**
+ * 圆盘的几何计算：手指偏移量、旋转角度与刻度位置之间的换算。
+ * 不依赖Android，可以直接在JVM上测试，由 {@link HorizontalWheelView} 驱动。
+ * <p>
+ * 刻度是虚拟的：值为 k * calibrationStep 的刻度贴在圆盘上，只有落在正面可见窗口内的刻度
+ * 才会按需算出x坐标。可见刻度的序号范围由当前角度直接算出，x坐标用旋转递推得到，
+ * 每个刻度不调用 Math.sin 或取模。刻度太密时按 1-2-5 的倍数抽稀，
+ * 使相邻刻度在中点处至少相隔 minCalibrationSpacing 像素，绘制的刻度数只和宽度有关。
+ * <p>
+ * 可见刻度只由旋转量决定：旋转量量化到中点处 1/{@value #ROTATION_QUANTA_PER_PX} 像素后作为key，
+ * 刻度按量化后的旋转量计算，算好的结果按key缓存在 {@link TickFrameCache} 中，来回拖动时直接复用。
+ */
+final class WheelGeometry {
+
+    static final int VISIBLE_DEGREE_D = 90;
+    static final double VISIBLE_DEGREE = VISIBLE_DEGREE_D / 180f * Math.PI;
+    static final double VISIBLE_HALF_DEGREE = VISIBLE_DEGREE / 2;
+
+    /** 圆盘半径与可绘制区域宽度之比，正好让可见的90度铺满宽度 */
+    static final double REL_R = 0.5f / Math.sin(VISIBLE_DEGREE / 2);
+
+    /** 默认范围的半宽，范围为0时也按它计算刻度间距 */
+    static final float DEFAULT_HALF_RANGE = 45;
+    /**
+     * 默认的刻度间隔，约4.44。每度对应 sin(45°)/range 弧度，让中点处的刻度跟手移动，
+     * 取这个间隔使默认范围下相邻刻度在圆盘上相隔4度，与原来一致
+     */
+    static final float DEFAULT_CALIBRATION_STEP =
+            (float)(Math.toRadians(4) * DEFAULT_HALF_RANGE / Math.sin(VISIBLE_HALF_DEGREE));
+    /** 默认相邻刻度在中点处的最小间距(px) */
+    static final float DEFAULT_MIN_CALIBRATION_SPACING = 8;
+
+    /** 旋转量在中点处每像素的量化份数 */
+    static final int ROTATION_QUANTA_PER_PX = 64;
+    /** 缓存的可见刻度组数 */
+    private static final int TICK_FRAME_CACHE_SIZE = 16;
+
+    /** 向左旋转的最大角度 */
+    private float mMinDegree;
+    /** 向右旋转的最大角度 */
+    private float mMaxDegree;
+    /** 角度的精度，松手后取整到它的整数倍 */
+    private float mResolution = 1;
+
+    /** 相邻两个刻度代表的角度 */
+    private float mCalibrationStep = DEFAULT_CALIBRATION_STEP;
+    /** 每隔多少个刻度一个长刻度，0表示没有长刻度 */
+    private int mMajorEvery;
+    private float mMinCalibrationSpacing = DEFAULT_MIN_CALIBRATION_SPACING;
+
+    /** 可绘制区域的宽度 */
+    private int mWidth;
+    /** 可绘制区域中点的x坐标 */
+    private int mCenterX;
+    /** 圆盘的半径 */
+    private double mRadius;
+
+    /** 每一度对应圆盘转过的弧度，使中点附近的刻度跟手移动 */
+    private double mRadPerDegree;
+    /** 抽稀倍数：每隔多少个刻度绘制一个 */
+    private int mDecimation = 1;
+    /** 相邻两个绘制的刻度之间的弧度 */
+    private double mDrawnStep;
+    private double mSinStep;
+    private double mCosStep;
+
+    /** 以可绘制区域中点为原点的总的偏移量 */
+    private float mTotalOffsetX;
+    /** 圆盘转过的角度 */
+    private float mCurrentDegree;
+
+    /** 第一个可见刻度的序号k，值为 k * calibrationStep */
+    private long mFirstVisibleIndex;
+    /** 可见刻度的数量 */
+    private int mVisibleCount;
+    /** 可见刻度从左到右的x轴坐标，指向缓存中当前的一组 */
+    private float[] mVisibleX = new float[0];
+    /** 可见刻度是否为长刻度 */
+    private boolean[] mVisibleMajor = new boolean[0];
+    private final TickFrameCache mTickFrames = new TickFrameCache(TICK_FRAME_CACHE_SIZE);
+
+    /** 可见刻度每重新计算一次加1 */
+    private int mVisibleVersion;
+    /** 当前可见刻度对应的量化旋转量 */
+    private long mComputedKey;
+    /** 布局（宽度、刻度间隔、抽稀）改变后需要重新计算可见刻度 */
+    private boolean mLayoutDirty = true;
+
+    void setRegion(float min, float max) {
+        mMinDegree = Math.min(min, max);
+        mMaxDegree = Math.max(min, max);
+        computeLayout();
+        mCurrentDegree = clamp(mCurrentDegree, mMinDegree, mMaxDegree);
+        calOffsetByDegree(mCurrentDegree);
+        updateVisibleCalibrations();
+    }
+
+    float getMinDegree() {
+        return mMinDegree;
+    }
+
+    float getMaxDegree() {
+        return mMaxDegree;
+    }
+
+    void setResolution(float resolution) {
+        if (!(resolution > 0)) {
+            throw new IllegalArgumentException("resolution must be positive: " + resolution);
+        }
+        mResolution = resolution;
+    }
+
+    float getResolution() {
+        return mResolution;
+    }
+
+    /** 设置刻度间隔和长刻度的间隔 */
+    void setCalibrationStep(float step, int majorEvery) {
+        if (!(step > 0)) {
+            throw new IllegalArgumentException("calibration step must be positive: " + step);
+        }
+        mCalibrationStep = step;
+        mMajorEvery = Math.max(majorEvery, 0);
+        computeLayout();
+        updateVisibleCalibrations();
+    }
+
+    float getCalibrationStep() {
+        return mCalibrationStep;
+    }
+
+    int getMajorEvery() {
+        return mMajorEvery;
+    }
+
+    void setMinCalibrationSpacing(float spacing) {
+        mMinCalibrationSpacing = Math.max(spacing, 1);
+        computeLayout();
+        updateVisibleCalibrations();
+    }
+
+    int getDecimation() {
+        return mDecimation;
+    }
+
+    /** 可绘制区域改变时调用，重新计算半径、偏移量和可见刻度 */
+    void setBounds(int width, int centerX) {
+        if (width == mWidth && centerX == mCenterX) {
+            return;
+        }
+        // 角度不变，偏移量和刻度按新的宽度重新换算，缓冲区只在容量不够时重新分配
+        mWidth = width;
+        mCenterX = centerX;
+        mRadius = width * REL_R;
+        computeLayout();
+        calOffsetByDegree(mCurrentDegree);
+        updateVisibleCalibrations();
+    }
+
+    boolean hasBounds() {
+        return mWidth > 0;
+    }
+
+    /**
+     * 设置旋转角度，偏移量和刻度跟着更新
+     *
+     * @return 角度没有变化时什么都不做，返回false
+     */
+    boolean setDegree(float degree) {
+        float clamped = clamp(degree, mMinDegree, mMaxDegree);
+        if (clamped == mCurrentDegree) {
+            return false;
+        }
+        mCurrentDegree = clamped;
+        calOffsetByDegree(mCurrentDegree);
+        updateVisibleCalibrations();
+        return true;
+    }
+
+    /**
+     * 手指移动dx后更新偏移量、角度和刻度。
+     *
+     * @return 旋转到边界时返回true，此时角度已取整
+     */
+    boolean applyOffset(float dx) {
+        mTotalOffsetX += dx;
+        calProgress();
+        boolean pinned = mCurrentDegree >= mMaxDegree || mCurrentDegree <= mMinDegree;
+        if (pinned) {
+            mCurrentDegree = getRoundedDegree();
+            calOffsetByDegree(mCurrentDegree);
+        }
+        updateVisibleCalibrations();
+        return pinned;
+    }
+
+    /** 恢复之前读取的偏移量和角度，用于撤销只为显示做的移动 */
+    void restore(float totalOffsetX, float degree) {
+        mTotalOffsetX = totalOffsetX;
+        mCurrentDegree = degree;
+        updateVisibleCalibrations();
+    }
+
+    /** 将旋转角度取整到精度的整数倍，偏移量跟着对齐 */
+    void roundDegree() {
+        mCurrentDegree = getRoundedDegree();
+        calOffsetByDegree(mCurrentDegree);
+        updateVisibleCalibrations();
+    }
+
+    /** 当前角度取整到精度的整数倍，远离0的方向四舍五入 */
+    float getRoundedDegree() {
+        return clamp(quantize(mCurrentDegree) * mResolution, mMinDegree, mMaxDegree);
+    }
+
+    /** progress是精度的多少倍，远离0的方向四舍五入 */
+    long quantize(float progress) {
+        float units = progress / mResolution;
+        float flag = units >= 0 ? 0.5f : -0.5f;
+        return (long)(units + flag);
+    }
+
+    /** 旋转到degree时对应的总偏移量 */
+    float getOffsetByDegree(float degree) {
+        float range = getHalfRange();
+        float ratio = range == 0 ? 0 : degree / range;
+        int halfW = mWidth / 2;
+        return -clamp(halfW * ratio, -halfW, halfW);
+    }
+
+    /** 总偏移量为offset时对应的角度，是 {@link #getOffsetByDegree} 的逆运算 */
+    float getDegreeByOffset(float offset) {
+        float ratio = mWidth == 0 ? 0 : clamp(offset, -mWidth / 2f, mWidth / 2f) * 2 / mWidth;
+        return clamp(-ratio * getHalfRange(), mMinDegree, mMaxDegree);
+    }
+
+    /** 总偏移量的最大绝对值 */
+    int getMaxOffsetX() {
+        return mWidth / 2;
+    }
+
+    float getTotalOffsetX() {
+        return mTotalOffsetX;
+    }
+
+    float getCurrentDegree() {
+        return mCurrentDegree;
+    }
+
+    double getRadius() {
+        return mRadius;
+    }
+
+    /** 值为0的刻度当前所在的弧度 */
+    double getRotation() {
+        return -mCurrentDegree * mRadPerDegree;
+    }
+
+    /** 第一个可见刻度的序号，刻度的值为序号乘以 calibrationStep */
+    long getFirstVisibleIndex() {
+        return mFirstVisibleIndex;
+    }
+
+    int getVisibleCount() {
+        return mVisibleCount;
+    }
+
+    /** 第index个可见刻度（从左往右）的x轴坐标 */
+    float getVisibleX(int index) {
+        return mVisibleX[index];
+    }
+
+    /** 第index个可见刻度（从左往右）是否为长刻度 */
+    boolean isVisibleMajor(int index) {
+        return mVisibleMajor[index];
+    }
+
+    /** 可见刻度的版本，没有变化说明刻度位置和上一次完全相同 */
+    int getVisibleVersion() {
+        return mVisibleVersion;
+    }
+
+    /** 绘制的刻度数的上限，只和宽度有关 */
+    int getVisibleCapacity() {
+        return mTickFrames.getCapacity();
+    }
+
+    /** 可见刻度缓存的命中次数 */
+    int getTickFrameHits() {
+        return mTickFrames.getHitCount();
+    }
+
+    /** 偏移量从中点到边缘对应的角度 */
+    private float getHalfRange() {
+        return Math.max(Math.abs(mMinDegree), Math.abs(mMaxDegree));
+    }
+
+    /** 范围、刻度间隔或宽度改变后，重新计算弧度比例、抽稀倍数和缓冲区大小 */
+    private void computeLayout() {
+        mLayoutDirty = true;
+        float range = getHalfRange();
+        if (range == 0) {
+            // 圆盘不能转动，但刻度仍要画出来
+            range = DEFAULT_HALF_RANGE;
+        }
+        // 手指在中点附近移动dx时，中点处的刻度也移动dx
+        mRadPerDegree = Math.sin(VISIBLE_HALF_DEGREE) / range;
+        double step = mRadPerDegree * mCalibrationStep;
+        if (!hasBounds() || step <= 0) {
+            mDecimation = 1;
+            mDrawnStep = 0;
+            return;
+        }
+        double spacing = mRadius * step;
+        int decimation = 1;
+        // 1, 2, 5, 10, 20, 50 ...
+        for (int i = 0; spacing * decimation < mMinCalibrationSpacing; i++) {
+            int decade = (int)Math.pow(10, i / 3);
+            decimation = decade * (i % 3 == 0 ? 2 : i % 3 == 1 ? 5 : 10);
+            if (decimation <= 0) {
+                decimation = Integer.MAX_VALUE;
+                break;
+            }
+        }
+        mDecimation = decimation;
+        mDrawnStep = step * decimation;
+        mSinStep = Math.sin(mDrawnStep);
+        mCosStep = Math.cos(mDrawnStep);
+        mTickFrames.reset((int)(VISIBLE_DEGREE / mDrawnStep) + 2);
+    }
+
+    /** 根据总的偏移量计算旋转角度 */
+    private void calProgress() {
+        // 小于０为顺时针旋转，角度为正，大于０则相反
+        mTotalOffsetX = clamp(mTotalOffsetX, -mWidth / 2f, mWidth / 2f);
+        mCurrentDegree = getDegreeByOffset(mTotalOffsetX);
+    }
+
+    private void calOffsetByDegree(float degree) {
+        mTotalOffsetX = getOffsetByDegree(degree);
+    }
+
+    /** 按量化后的旋转量取出可见刻度，缓存中没有时计算 */
+    private void updateVisibleCalibrations() {
+        if (!hasBounds() || mDrawnStep <= 0) {
+            if (mVisibleCount != 0) {
+                mVisibleCount = 0;
+                mVisibleVersion++;
+            }
+            return;
+        }
+        double quanta = mRadius * ROTATION_QUANTA_PER_PX;
+        long key = Math.round(getRotation() * quanta);
+        if (!mLayoutDirty && key == mComputedKey) {
+            return;
+        }
+        TickFrameCache.Frame frame = mTickFrames.get(key);
+        if (frame == null) {
+            frame = mTickFrames.obtain(key);
+            computeFrame(frame, key / quanta);
+        }
+        mVisibleX = frame.x;
+        mVisibleMajor = frame.major;
+        mFirstVisibleIndex = frame.firstIndex;
+        mVisibleCount = frame.count;
+        mComputedKey = key;
+        mLayoutDirty = false;
+        mVisibleVersion++;
+    }
+
+    /** 直接算出角度落在[-VISIBLE_HALF_DEGREE, VISIBLE_HALF_DEGREE]内的刻度，并递推出它们的x坐标 */
+    private void computeFrame(TickFrameCache.Frame frame, double rotation) {
+        float[] visibleX = frame.x;
+        boolean[] visibleMajor = frame.major;
+        long first = (long)Math.ceil((-VISIBLE_HALF_DEGREE - rotation) / mDrawnStep);
+        long last = (long)Math.floor((VISIBLE_HALF_DEGREE - rotation) / mDrawnStep);
+        int count = (int)Math.min(Math.max(last - first + 1, 0), visibleX.length);
+        double degree = first * mDrawnStep + rotation;
+        double sin = Math.sin(degree);
+        double cos = Math.cos(degree);
+
+        // 长刻度：序号是 mMajorEvery 的整数倍，用余数递推代替逐个取模
+        int major = mMajorEvery;
+        long remainder = 0;
+        long remainderStep = 0;
+        if (major > 0) {
+            remainder = (first * mDecimation) % major;
+            if (remainder < 0) {
+                remainder += major;
+            }
+            remainderStep = mDecimation % major;
+        }
+        for (int i = 0; i < count; i++) {
+            visibleX[i] = (float)(mCenterX + mRadius * sin);
+            visibleMajor[i] = major > 0 && remainder == 0;
+            // sin(a + step) = sin(a)cos(step) + cos(a)sin(step)
+            double nextSin = sin * mCosStep + cos * mSinStep;
+            cos = cos * mCosStep - sin * mSinStep;
+            sin = nextSin;
+            remainder += remainderStep;
+            if (remainder >= major) {
+                remainder -= major;
+            }
+        }
+        frame.firstIndex = first * mDecimation;
+        frame.count = count;
+    }
+
+    static float clamp(float x, float min, float max) {
+        if (x > max) return max;
+        if (x < min) return min;
+        return x;
+    }
+}
@@ -0,0 +1,108 @@
+package com.lq.horizontalwheelview;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 主线程把触摸输入交给渲染线程的无锁状态槽。
+ * 只有主线程写入，只有渲染线程读取；整个状态打包在一个long里，一次写入一次读取，不需要加锁。
+ * 低32位是这次拖动累计的偏移量（float），32~47位是第几次拖动，第48位表示手指是否按着。
+ * 渲染线程每帧读一次，同一次拖动中被覆盖的状态不会丢失偏移，只是合并到同一帧中。
+ */
+final class WheelInputSlot {
+
+    /** 读取时发生的事件 */
+    static final int EVENT_STARTED = 1;
+    static final int EVENT_MOVED = 1 << 1;
+    static final int EVENT_RELEASED = 1 << 2;
+
+    private static final long OFFSET_MASK = 0xffffffffL;
+    private static final int GENERATION_SHIFT = 32;
+    private static final long GENERATION_MASK = 0xffffL;
+    private static final long PRESSED_BIT = 1L << 48;
+
+    private final AtomicLong mSlot = new AtomicLong();
+
+    // 以下只在写入线程使用
+    private int mWriteGeneration;
+    private float mWriteOffset;
+
+    /** 松手时的速度，在释放槽之前写入，读到释放状态时一定可见 */
+    private volatile float mReleaseVelocity;
+
+    // 以下只在读取线程使用
+    private int mReadGeneration;
+    private float mReadOffset;
+    private boolean mReadPressed;
+    private float mDelta;
+
+    /** 手指按下，开始新的一次拖动 */
+    void press() {
+        mWriteGeneration = (mWriteGeneration + 1) & (int)GENERATION_MASK;
+        mWriteOffset = 0;
+        publish(true);
+    }
+
+    /** 手指移动了dx */
+    void move(float dx) {
+        mWriteOffset += dx;
+        publish(true);
+    }
+
+    /** 手指抬起，velocity为松手时的速度，取消时传0 */
+    void release(float velocity) {
+        mReleaseVelocity = velocity;
+        publish(false);
+    }
+
+    private void publish(boolean pressed) {
+        long state = (Float.floatToRawIntBits(mWriteOffset) & OFFSET_MASK)
+                | ((long)mWriteGeneration << GENERATION_SHIFT)
+                | (pressed ? PRESSED_BIT : 0);
+        mSlot.set(state);
+    }
+
+    /**
+     * 读取最新状态，返回上次读取以来发生的事件，偏移量由 {@link #getDelta} 获取
+     *
+     * @return EVENT_STARTED、EVENT_MOVED、EVENT_RELEASED 的组合
+     */
+    int consume() {
+        long state = mSlot.get();
+        int generation = (int)((state >>> GENERATION_SHIFT) & GENERATION_MASK);
+        float offset = Float.intBitsToFloat((int)(state & OFFSET_MASK));
+        boolean pressed = (state & PRESSED_BIT) != 0;
+        int events = 0;
+        boolean active = mReadPressed;
+        if (generation != mReadGeneration) {
+            // 新的一次拖动，可能在两帧之间已经开始并结束
+            mReadGeneration = generation;
+            mReadOffset = 0;
+            events |= EVENT_STARTED;
+            active = true;
+        }
+        mDelta = offset - mReadOffset;
+        mReadOffset = offset;
+        if (mDelta != 0) {
+            events |= EVENT_MOVED;
+        }
+        if (active && !pressed) {
+            events |= EVENT_RELEASED;
+        }
+        mReadPressed = pressed;
+        return events;
+    }
+
+    /** 最近一次 consume 读到的偏移量 */
+    float getDelta() {
+        return mDelta;
+    }
+
+    float getReleaseVelocity() {
+        return mReleaseVelocity;
+    }
+
+    /** 最近一次 consume 时手指是否按着 */
+    boolean isPressed() {
+        return mReadPressed;
+    }
+}
@@ -0,0 +1,412 @@
+package com.lq.horizontalwheelview;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PointF;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+import android.graphics.Rect;
+import android.graphics.Region;
+import android.os.Build;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+
+/**
+ * 圆盘的绘制：刻度、遮罩、中间的角度文本和上下游标。
+ * 不关心触摸和动画，只按传入的 {@link WheelGeometry} 绘制，
+ * {@link HorizontalWheelView} 在主线程、{@link HorizontalWheelTextureView} 在渲染线程使用它。
+ * 同一个实例只能在一个线程中使用。
+ */
+final class WheelRenderer {
+
+    private static final float SIN60 = (float)Math.sin(Math.PI / 3);
+
+    /** 不可变，所有实例共用一个 */
+    private static final PorterDuffXfermode SRC_IN = new PorterDuffXfermode(PorterDuff.Mode.SRC_IN);
+
+    private final HorizontalWheelView.Theme mTheme;
+    /** 共享的字体和字体度量 */
+    private final WheelTextStyle mTextStyle;
+
+    private final Paint mLayerPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    /** 绘制圆盘刻度的paint */
+    private final Paint mCalibrationPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    /** 绘制圆盘中心旋转度数的paint */
+    private final Paint mTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    /** 绘制圆盘上下三角形游标的paint */
+    private final Paint mCursorPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    /** 绘制偏移Rect的paint */
+    private final Paint mOffsetXPaint = new Paint();
+    /** RENDER_MODE_CLIP 下绘制进度区间内刻度的paint */
+    private final Paint mProgressCaliPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    /** 圆盘中间刻度的长度 */
+    private int mCaliLength;
+
+    /** 游标与刻度的上下间距 */
+    private int mCursorPad;
+
+    /** 旋转范围内所有角度的文本，避免拖动时拼接字符串 */
+    private ProgressLabels mProgressLabels;
+
+    /** textDrawPoint[0]:文本宽度，textDrawPoint[1]:文本高度，textDrawPoint[2]:文本top padding */
+    private final float[] mTextDrawBounds = new float[3];
+
+    private final Rect mCenterNumRect = new Rect();
+
+    private final PointF mTextPoint = new PointF();
+
+    private int mRenderMode = HorizontalWheelView.RENDER_MODE_CLIP;
+
+    /** view的尺寸和剔除掉所有padding之后的可绘制区域 */
+    private int mViewW;
+    private int mViewH;
+    private final Rect mValidDrawBounds = new Rect();
+
+    /** 与其它同样配置的圆盘共享的遮罩和游标，未布局或释放后为null */
+    private WheelResources mResources;
+    /** 中间角度文本的字形图集，同样是共享的 */
+    private LabelAtlas mLabelAtlas;
+    /** 绘制图集时的临时Rect，每个renderer一份，图集可能同时被其它线程绘制 */
+    private final Rect mGlyphSrc = new Rect();
+    private final Rect mGlyphDst = new Rect();
+
+    /** 刻度所在的横条，拖动时刻度和进度颜色只在这里变化 */
+    private final Rect mCalibrationBand = new Rect();
+    /** 上一次绘制时顶部游标的范围 */
+    private final Rect mDrawnCursorRect = new Rect();
+    private final Rect mTempRect = new Rect();
+
+    /** 上下三角形游标 */
+    private final TriCursor cursorTop = new TriCursor(false);
+    private final TriCursor cursorBottom = new TriCursor(true);
+
+    /** 刻度线段的端点，一次 drawLines 画出所有刻度 */
+    private final CalibrationLines mCalibrationLines = new CalibrationLines();
+
+    WheelRenderer(DisplayMetrics metrics, HorizontalWheelView.Theme theme) {
+        mTheme = theme;
+        mCalibrationPaint.setStyle(Paint.Style.STROKE);
+        mCalibrationPaint.setColor(theme.getCaliColor());
+        mCalibrationPaint.setStrokeWidth(3);
+
+        mProgressCaliPaint.setStyle(Paint.Style.STROKE);
+        mProgressCaliPaint.setColor(HorizontalWheelView.sCrimsonColor);
+        mProgressCaliPaint.setStrokeWidth(3);
+
+        mTextPaint.setColor(theme.getTextColor());
+        mTextStyle = WheelTextStyle.get(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 14, metrics));
+        mTextStyle.apply(mTextPaint);
+
+        mCursorPaint.setStyle(Paint.Style.FILL);
+        mCursorPaint.setColor(theme.getCursorColor());
+
+        mOffsetXPaint.setStyle(Paint.Style.FILL);
+        mOffsetXPaint.setColor(HorizontalWheelView.sCrimsonColor);
+        mOffsetXPaint.setXfermode(SRC_IN);
+
+        mCursorPad = 20;
+        // 文本高度与内容无关，刻度长度取文本高度的4/7
+        mCaliLength = (int)(mTextStyle.getHeight() * 4 / 7);
+    }
+
+    HorizontalWheelView.Theme getTheme() {
+        return mTheme;
+    }
+
+    int getCaliLength() {
+        return mCaliLength;
+    }
+
+    int getCursorPad() {
+        return mCursorPad;
+    }
+
+    void setRenderMode(int renderMode) {
+        mRenderMode = renderMode;
+    }
+
+    int getRenderMode() {
+        return mRenderMode;
+    }
+
+    /** 范围或精度改变后，更新文本表和文本区域 */
+    void onScaleChanged(WheelGeometry geometry) {
+        float min = geometry.getMinDegree();
+        float max = geometry.getMaxDegree();
+        float resolution = geometry.getResolution();
+        if (mProgressLabels == null || !mProgressLabels.covers(min, max, resolution)) {
+            mProgressLabels = new ProgressLabels(min, max, resolution);
+        }
+        mTextDrawBounds[0] = mTextStyle.measure(mProgressLabels.getWidest());
+        mTextDrawBounds[1] = mTextStyle.getHeight();
+        mTextDrawBounds[2] = mTextStyle.getTop();
+        if (isReady()) {
+            initTextDrawBounds(geometry);
+            onProgressUpdated(geometry);
+        }
+    }
+
+    /** 尺寸或可绘制区域改变后重新布局，geometry的宽度应当已经更新 */
+    void setBounds(int viewW, int viewH, Rect validRect, WheelGeometry geometry) {
+        mViewW = viewW;
+        mViewH = viewH;
+        mValidDrawBounds.set(validRect);
+        acquireResources();
+        initCursor(geometry);
+        initTextDrawBounds(geometry);
+        initCalibrationBand(mValidDrawBounds);
+        mCalibrationLines.invalidate();
+    }
+
+    /** 释放后重新获取共享资源，布局不变 */
+    void reacquire(WheelGeometry geometry) {
+        if (mResources == null && mViewW > 0) {
+            acquireResources();
+            initCursor(geometry);
+        }
+    }
+
+    /** 释放共享资源，之后绘制前需要 {@link #reacquire} */
+    void release() {
+        WheelResources.release(mResources);
+        mResources = null;
+        LabelAtlas.release(mLabelAtlas);
+        mLabelAtlas = null;
+    }
+
+    boolean isReady() {
+        return mResources != null;
+    }
+
+    /** 偏移量或角度改变后，更新游标位置和文本位置 */
+    void onProgressUpdated(WheelGeometry geometry) {
+        cursorTop.transXTo(geometry.getTotalOffsetX());
+        updateTextBasePoint(getProgressStr(geometry.getCurrentDegree()));
+    }
+
+    /** 这一帧绘制的刻度数 */
+    int getLineCount() {
+        return mCalibrationLines.getLineCount();
+    }
+
+    /**
+     * 会随进度变化的范围：刻度横条、中间的角度文本以及顶部游标移动前后的范围。
+     *
+     * @return 还没有布局时返回false
+     */
+    boolean getMovingBounds(Rect out) {
+        if (!isReady() || mCalibrationBand.isEmpty()) {
+            return false;
+        }
+        out.set(mCalibrationBand);
+        out.union(mCenterNumRect);
+        out.union(mDrawnCursorRect);
+        cursorTop.getBounds(mTempRect);
+        out.union(mTempRect);
+        return true;
+    }
+
+    void draw(Canvas canvas, WheelGeometry geometry) {
+        if (!isReady()) {
+            return;
+        }
+        int viewW = mViewW;
+        int viewH = mViewH;
+
+        calCalibrationLines(geometry);
+
+        float totalOffsetX = geometry.getTotalOffsetX();
+        float progressLeft = totalOffsetX >= 0 ? viewW/2 : viewW/2 + totalOffsetX;
+        float progressRight = totalOffsetX >= 0 ? viewW/2 + totalOffsetX : viewW/2;
+        if (mRenderMode == HorizontalWheelView.RENDER_MODE_LAYER) {
+            drawCalibrationsWithLayer(canvas, viewW, viewH, progressLeft, progressRight);
+        } else {
+            drawCalibrationsWithClip(canvas, viewH, progressLeft, progressRight);
+        }
+
+        // draw mask
+        mResources.getMask().draw(canvas);
+
+        // draw straighten text
+        canvas.save();
+        canvas.clipRect(mCenterNumRect);
+        canvas.drawColor(mTheme.getTextBgColor());
+        CharSequence text = getProgressStr(geometry.getCurrentDegree());
+        if (obtainLabelAtlas().canDraw(text)) {
+            mLabelAtlas.draw(canvas, text, mTextPoint.x, mTextPoint.y, mTextPaint, mGlyphSrc, mGlyphDst);
+        } else {
+            canvas.drawText(text, 0, text.length(), mTextPoint.x, mTextPoint.y, mTextPaint);
+        }
+        canvas.restore();
+
+        // draw cursor
+        mCursorPaint.setColor(HorizontalWheelView.sCrimsonColor);
+        cursorTop.draw(canvas, mCursorPaint);
+        mCursorPaint.setColor(mTheme.getCursorColor());
+        cursorBottom.draw(canvas, mCursorPaint);
+        cursorTop.getBounds(mDrawnCursorRect);
+    }
+
+    private void drawCalibrationsWithLayer(Canvas canvas, int viewW, int viewH, float progressLeft, float progressRight) {
+        canvas.saveLayer(0, 0, viewW, viewH, mLayerPaint, Canvas.ALL_SAVE_FLAG);
+        // draw calibrations
+        drawCalibrationLines(canvas, mCalibrationPaint);
+
+        // draw progress mask
+        canvas.drawRect(progressLeft, 0, progressRight, viewH, mOffsetXPaint);
+        canvas.restore();
+    }
+
+    private void drawCalibrationsWithClip(Canvas canvas, int viewH, float progressLeft, float progressRight) {
+        if (progressLeft >= progressRight) {
+            drawCalibrationLines(canvas, mCalibrationPaint);
+            return;
+        }
+        // 进度区间外的刻度
+        canvas.save();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            canvas.clipOutRect(progressLeft, 0, progressRight, viewH);
+        } else {
+            canvas.clipRect(progressLeft, 0, progressRight, viewH, Region.Op.DIFFERENCE);
+        }
+        drawCalibrationLines(canvas, mCalibrationPaint);
+        canvas.restore();
+
+        // 进度区间内的刻度
+        canvas.save();
+        canvas.clipRect(progressLeft, 0, progressRight, viewH);
+        drawCalibrationLines(canvas, mProgressCaliPaint);
+        canvas.restore();
+    }
+
+    /** 从进程内的缓存获取当前布局对应的共享资源 */
+    private void acquireResources() {
+        WheelResources old = mResources;
+        mResources = WheelResources.acquire(mViewW, mViewH, mValidDrawBounds, mTheme, mCaliLength, mCursorPad);
+        WheelResources.release(old);
+    }
+
+    private LabelAtlas obtainLabelAtlas() {
+        if (mLabelAtlas == null || !mLabelAtlas.matches(mTextPaint)) {
+            LabelAtlas old = mLabelAtlas;
+            mLabelAtlas = LabelAtlas.acquire(mTextPaint);
+            LabelAtlas.release(old);
+        }
+        return mLabelAtlas;
+    }
+
+    private void initCursor(WheelGeometry geometry) {
+        // 初始化游标，路径来自共享资源
+        float centerX = mValidDrawBounds.centerX();
+        cursorTop.l = mResources.getCursorEdge();
+        cursorTop.p.set(centerX, mResources.getTopCursorY());
+        cursorTop.path = mResources.getTopCursor();
+        cursorTop.transXTo(geometry.getTotalOffsetX());
+
+        cursorBottom.l = mResources.getCursorEdge();
+        cursorBottom.p.set(centerX, mResources.getBottomCursorY());
+        cursorBottom.path = mResources.getBottomCursor();
+    }
+
+    private void initCalibrationBand(Rect validRect) {
+        int stroke = (int)Math.ceil(mCalibrationPaint.getStrokeWidth());
+        int top = (int)Math.floor(validRect.top + (validRect.height() - mCaliLength) / 2f);
+        mCalibrationBand.set(validRect.left - stroke, top - stroke,
+                validRect.right + stroke, top + mCaliLength + stroke * 2);
+    }
+
+    private void initTextDrawBounds(WheelGeometry geometry) {
+        Rect validRect = mValidDrawBounds;
+        int textH = (int)mTextDrawBounds[1], textW = (int)mTextDrawBounds[0];
+        int left = validRect.centerX() - textW / 2;
+        int top = validRect.centerY() - textH / 2;
+        int padT_B = 4;
+        int padL_R = 12;
+        mCenterNumRect.set(left - padL_R, top - padT_B, left + textW + padL_R, top + textH + padT_B);
+
+        CharSequence text = getProgressStr(geometry.getCurrentDegree());
+        float realTextWidth = measureLabel(text);
+        float textX = validRect.centerX() - realTextWidth/2;
+        float textY = validRect.top + (validRect.height() - textH)/2 - mTextDrawBounds[2];
+        mTextPoint.set(textX, textY);
+    }
+
+    /** 仅仅更新text draw的x坐标 */
+    private void updateTextBasePoint(CharSequence text) {
+        float textWidth = measureLabel(text);
+        mTextPoint.set(mValidDrawBounds.centerX() - textWidth / 2, mTextPoint.y);
+    }
+
+    /** 用图集的宽度表测量文本，和绘制时的字符间距一致 */
+    private float measureLabel(CharSequence text) {
+        if (obtainLabelAtlas().canDraw(text)) {
+            return mLabelAtlas.measure(text);
+        }
+        return mTextPaint.measureText(text, 0, text.length());
+    }
+
+    private CharSequence getProgressStr(float progress) {
+        return mProgressLabels.get(progress);
+    }
+
+    private void calCalibrationLines(WheelGeometry geometry) {
+        int height = mValidDrawBounds.height();
+        float startY = mValidDrawBounds.top + (height - mCaliLength) / 2f;
+        float endY = startY + mCaliLength;
+        // 区分长短刻度时，短刻度取3/5的长度
+        float minorInset = geometry.getMajorEvery() > 0 ? mCaliLength / 5f : 0;
+        mCalibrationLines.update(geometry, startY, endY, minorInset);
+    }
+
+    private void drawCalibrationLines(Canvas canvas, Paint paint) {
+        int count = mCalibrationLines.getPointCount();
+        if (count > 0) {
+            canvas.drawLines(mCalibrationLines.getPoints(), 0, count, paint);
+        }
+    }
+
+    /** 正三角行游标 */
+    private static final class TriCursor {
+        /** 游标的中点坐标 */
+        private final PointF p = new PointF();
+        /** 三角形游标的边长 */
+        private float l;
+        /** 三角形的朝向, true 为朝上 */
+        private final boolean face;
+
+        /** 原点处的游标，来自共享资源，移动时不修改 */
+        private Path path;
+        /** 当前相对原点移动的x */
+        private float transX;
+
+        TriCursor(boolean face) {
+            this.face = face;
+        }
+
+        /** view 的中点作为原点，相对原点移动x，绘制时再平移画布 */
+        void transXTo(float x) {
+            transX = x;
+        }
+
+        void draw(Canvas canvas, Paint paint) {
+            if (transX == 0) {
+                canvas.drawPath(path, paint);
+                return;
+            }
+            canvas.save();
+            canvas.translate(transX, 0);
+            canvas.drawPath(path, paint);
+            canvas.restore();
+        }
+
+        /** 当前位置的外接矩形，多留1px给抗锯齿 */
+        void getBounds(Rect out) {
+            float h = l * SIN60;
+            float top = face ? p.y - h : p.y;
+            out.set((int)Math.floor(p.x + transX - l/2) - 1, (int)Math.floor(top) - 1,
+                    (int)Math.ceil(p.x + transX + l/2) + 1, (int)Math.ceil(top + h) + 1);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.lq.horizontalwheelview;
+
+import android.graphics.Path;
+import android.graphics.Rect;
+
+/**
+ * 一种布局下可以被多个圆盘共享的绘制资源：合成好的遮罩和上下两个游标。
+ * 它们只和view尺寸、可绘制区域、主题和刻度长度有关，创建后不再修改，
+ * 通过 {@link #acquire} 从进程内的缓存获取，不用时 {@link #release}。
+ */
+final class WheelResources {
+
+    /** 没有view使用时最多保留的布局数，RecyclerView中回收的圆盘重新绑定时可以直接复用 */
+    static final int MAX_IDLE = 4;
+
+    private static final float SIN60 = (float)Math.sin(Math.PI / 3);
+
+    private static final SharedCache<Key, WheelResources> sCache = new SharedCache<Key, WheelResources>(MAX_IDLE) {
+        @Override
+        protected WheelResources create(Key key) {
+            return new WheelResources(key);
+        }
+
+        @Override
+        protected void destroy(WheelResources value) {
+            value.mMask.release();
+        }
+    };
+
+    private final Key mKey;
+    private final MaskOverlay mMask = new MaskOverlay();
+    /** 未平移时的游标，朝下的在上方 */
+    private final Path mTopCursor = new Path();
+    private final Path mBottomCursor = new Path();
+    private final float mCursorEdge;
+    private final float mTopCursorY;
+    private final float mBottomCursorY;
+
+    private WheelResources(Key key) {
+        mKey = key;
+        Rect validRect = key.validRect;
+        mMask.ensure(key.viewW, key.viewH, validRect, key.theme);
+
+        int cursorEdge = key.caliLength * 4 / 5;
+        int cursorH = (int) (cursorEdge * SIN60);
+        int y = (validRect.height() - cursorEdge - cursorH * 2 - key.cursorPad * 2) / 2;
+        mCursorEdge = cursorEdge;
+        mTopCursorY = validRect.top + y;
+        mBottomCursorY = validRect.bottom - y;
+        buildCursor(mTopCursor, validRect.centerX(), mTopCursorY, cursorEdge, false);
+        buildCursor(mBottomCursor, validRect.centerX(), mBottomCursorY, cursorEdge, true);
+    }
+
+    /** 获取与当前配置对应的共享资源，引用计数加1 */
+    static WheelResources acquire(int viewW, int viewH, Rect validRect, HorizontalWheelView.Theme theme,
+            int caliLength, int cursorPad) {
+        return sCache.acquire(new Key(viewW, viewH, validRect, theme, caliLength, cursorPad));
+    }
+
+    static void release(WheelResources resources) {
+        if (resources != null) {
+            sCache.release(resources.mKey);
+        }
+    }
+
+    MaskOverlay getMask() {
+        return mMask;
+    }
+
+    Path getTopCursor() {
+        return mTopCursor;
+    }
+
+    Path getBottomCursor() {
+        return mBottomCursor;
+    }
+
+    float getCursorEdge() {
+        return mCursorEdge;
+    }
+
+    float getTopCursorY() {
+        return mTopCursorY;
+    }
+
+    float getBottomCursorY() {
+        return mBottomCursorY;
+    }
+
+    /** 以(x, y)为底边中点的正三角形，face为true时朝上 */
+    private static void buildCursor(Path path, float x, float y, float l, boolean face) {
+        path.moveTo(x - l/2, y);
+        path.lineTo(x + l/2, y);
+        path.lineTo(x, face ? y - l * SIN60 : y + l * SIN60);
+    }
+
+    static final class Key {
+        final int viewW;
+        final int viewH;
+        final Rect validRect;
+        final HorizontalWheelView.Theme theme;
+        final int caliLength;
+        final int cursorPad;
+
+        Key(int viewW, int viewH, Rect validRect, HorizontalWheelView.Theme theme, int caliLength, int cursorPad) {
+            this.viewW = viewW;
+            this.viewH = viewH;
+            this.validRect = new Rect(validRect);
+            this.theme = theme;
+            this.caliLength = caliLength;
+            this.cursorPad = cursorPad;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return viewW == key.viewW && viewH == key.viewH && caliLength == key.caliLength
+                    && cursorPad == key.cursorPad && theme == key.theme && validRect.equals(key.validRect);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = viewW;
+            result = 31 * result + viewH;
+            result = 31 * result + validRect.hashCode();
+            result = 31 * result + (theme != null ? theme.hashCode() : 0);
+            result = 31 * result + caliLength;
+            result = 31 * result + cursorPad;
+            return result;
+        }
+    }
+}
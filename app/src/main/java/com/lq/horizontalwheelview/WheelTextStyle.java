@@ -0,0 +1,75 @@
+package com.lq.horizontalwheelview;
+
+import android.graphics.Paint;
+import android.graphics.Typeface;
+
+import java.util.HashMap;
+
+/**
+ * 中间角度文本的字体和字体度量，同一字号的所有圆盘共享。
+ * 字体和度量只在第一个圆盘第一次测量时查询一次，之后创建的圆盘直接复用。
+ */
+final class WheelTextStyle {
+
+    private static final String FAMILY = "sans-serif-medium";
+
+    private static final HashMap<Float, WheelTextStyle> sStyles = new HashMap<Float, WheelTextStyle>();
+    private static Typeface sTypeface;
+
+    private final float mTextSize;
+    private final Typeface mTypeface;
+    /** 字体度量的top，为负数 */
+    private final float mTop;
+    private final float mHeight;
+    /** 测量过的文本宽度，主要是各个范围下最长的角度文本 */
+    private final HashMap<String, Float> mWidths = new HashMap<String, Float>();
+    private final Paint mMeasurePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    private WheelTextStyle(float textSize, Typeface typeface) {
+        mTextSize = textSize;
+        mTypeface = typeface;
+        mMeasurePaint.setTextSize(textSize);
+        mMeasurePaint.setTypeface(typeface);
+        Paint.FontMetrics fontM = mMeasurePaint.getFontMetrics();
+        mTop = fontM.top;
+        mHeight = fontM.bottom - fontM.top;
+    }
+
+    /** 获取textSize对应的样式，第一次用到时创建 */
+    static synchronized WheelTextStyle get(float textSize) {
+        WheelTextStyle style = sStyles.get(textSize);
+        if (style == null) {
+            if (sTypeface == null) {
+                sTypeface = Typeface.create(FAMILY, Typeface.NORMAL);
+            }
+            style = new WheelTextStyle(textSize, sTypeface);
+            sStyles.put(textSize, style);
+        }
+        return style;
+    }
+
+    /** 把字号和字体设置到paint上 */
+    void apply(Paint paint) {
+        paint.setTextSize(mTextSize);
+        paint.setTypeface(mTypeface);
+    }
+
+    float getTop() {
+        return mTop;
+    }
+
+    /** 文本高度，与内容无关 */
+    float getHeight() {
+        return mHeight;
+    }
+
+    /** 测量文本宽度，结果会被缓存，只用于数量有限的文本 */
+    synchronized float measure(String text) {
+        Float width = mWidths.get(text);
+        if (width == null) {
+            width = mMeasurePaint.measureText(text);
+            mWidths.put(text, width);
+        }
+        return width;
+    }
+}
@@ -0,0 +1,37 @@
+package com.lq.horizontalwheelview;
+
+/**
+ * 画面状态的量化key：偏移量取整到像素、显示的角度取整到精度、主题。
+ * key没有变化时画面不会有可见的变化，可以跳过重新计算、重绘和回调，
+ * 例如拖动到边界后继续拖动，或者手指只移动了不到半个像素。
+ */
+final class WheelVisualState {
+
+    private boolean mValid;
+    private int mOffsetPx;
+    private long mDegreeUnits;
+    private int mTheme;
+
+    /**
+     * 用geometry的当前状态更新key
+     *
+     * @return key与上一次不同时返回true
+     */
+    boolean update(WheelGeometry geometry, int theme) {
+        int offsetPx = Math.round(geometry.getTotalOffsetX());
+        long degreeUnits = geometry.quantize(geometry.getCurrentDegree());
+        if (mValid && offsetPx == mOffsetPx && degreeUnits == mDegreeUnits && theme == mTheme) {
+            return false;
+        }
+        mValid = true;
+        mOffsetPx = offsetPx;
+        mDegreeUnits = degreeUnits;
+        mTheme = theme;
+        return true;
+    }
+
+    /** 尺寸、范围或精度改变后，同样的key不再对应同样的画面 */
+    void invalidate() {
+        mValid = false;
+    }
+}
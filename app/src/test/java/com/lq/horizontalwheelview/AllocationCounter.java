@@ -0,0 +1,37 @@
+package com.lq.horizontalwheelview;
+
+import org.junit.Assume;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 统计当前线程在一段代码里分配的字节数，依赖HotSpot的 com.sun.management.ThreadMXBean，
+ * 不支持的JVM上直接跳过测试。
+ */
+final class AllocationCounter {
+
+    private final com.sun.management.ThreadMXBean mThreadBean;
+    private final long mThreadId;
+    private final long mOverhead;
+
+    AllocationCounter() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        mThreadBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(mThreadBean.isThreadAllocatedMemorySupported());
+        mThreadBean.setThreadAllocatedMemoryEnabled(true);
+        mThreadId = Thread.currentThread().getId();
+        long before = mThreadBean.getThreadAllocatedBytes(mThreadId);
+        mOverhead = mThreadBean.getThreadAllocatedBytes(mThreadId) - before;
+    }
+
+    /** 预热若干次之后，返回最后一次运行分配的字节数 */
+    long count(Runnable runnable, int warmUp) {
+        for (int i = 0; i < warmUp; i++) {
+            runnable.run();
+        }
+        long before = mThreadBean.getThreadAllocatedBytes(mThreadId);
+        runnable.run();
+        return mThreadBean.getThreadAllocatedBytes(mThreadId) - before - mOverhead;
+    }
+}
@@ -0,0 +1,53 @@
+package com.lq.horizontalwheelview;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 刻度线段缓冲区的单元测试。
+ */
+public class CalibrationLinesTest {
+
+    private WheelGeometry mGeometry;
+    private CalibrationLines mLines;
+
+    @Before
+    public void setUp() {
+        mGeometry = new WheelGeometry();
+        mGeometry.setRegion(-45, 45);
+        mGeometry.setCalibrationStep(4, 5);
+        mGeometry.setBounds(900, 500);
+        mLines = new CalibrationLines();
+    }
+
+    @Test
+    public void endpoints_followVisibleCalibrations() {
+        assertTrue(mLines.update(mGeometry, 10, 40, 6));
+        float[] points = mLines.getPoints();
+        assertEquals(mGeometry.getVisibleCount(), mLines.getLineCount());
+        for (int i = 0; i < mLines.getLineCount(); i++) {
+            float inset = mGeometry.isVisibleMajor(i) ? 0 : 6;
+            assertEquals(mGeometry.getVisibleX(i), points[i * 4], 0f);
+            assertEquals(10 + inset, points[i * 4 + 1], 0f);
+            assertEquals(mGeometry.getVisibleX(i), points[i * 4 + 2], 0f);
+            assertEquals(40 - inset, points[i * 4 + 3], 0f);
+        }
+    }
+
+    @Test
+    public void update_skipsWhenNothingMoved() {
+        assertTrue(mLines.update(mGeometry, 10, 40, 6));
+        float[] points = mLines.getPoints();
+        mGeometry.applyOffset(0);
+        assertFalse(mLines.update(mGeometry, 10, 40, 6));
+        mGeometry.applyOffset(3);
+        assertTrue(mLines.update(mGeometry, 10, 40, 6));
+        assertSame(points, mLines.getPoints());
+        assertTrue(mLines.update(mGeometry, 12, 40, 6));
+    }
+}
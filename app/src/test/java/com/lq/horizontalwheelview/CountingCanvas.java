@@ -0,0 +1,100 @@
+package com.lq.horizontalwheelview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+/**
+ * 画到bitmap上的同时统计绘制调用次数的Canvas，用来检查 onDraw 每帧发出了多少绘制操作。
+ */
+class CountingCanvas extends Canvas {
+
+    int drawLines;
+    int drawPath;
+    int drawBitmap;
+    int drawText;
+    int drawRect;
+    int drawColor;
+    int saveLayer;
+
+    CountingCanvas(Bitmap bitmap) {
+        super(bitmap);
+    }
+
+    void reset() {
+        drawLines = drawPath = drawBitmap = drawText = drawRect = drawColor = saveLayer = 0;
+    }
+
+    int getOpCount() {
+        return drawLines + drawPath + drawBitmap + drawText + drawRect + drawColor + saveLayer;
+    }
+
+    @Override
+    public void drawLines(float[] pts, int offset, int count, Paint paint) {
+        drawLines++;
+        super.drawLines(pts, offset, count, paint);
+    }
+
+    @Override
+    public void drawLines(float[] pts, Paint paint) {
+        drawLines++;
+        super.drawLines(pts, paint);
+    }
+
+    @Override
+    public void drawPath(Path path, Paint paint) {
+        drawPath++;
+        super.drawPath(path, paint);
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+        drawBitmap++;
+        super.drawBitmap(bitmap, left, top, paint);
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, Rect dst, Paint paint) {
+        drawBitmap++;
+        super.drawBitmap(bitmap, src, dst, paint);
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {
+        drawBitmap++;
+        super.drawBitmap(bitmap, src, dst, paint);
+    }
+
+    @Override
+    public void drawText(String text, float x, float y, Paint paint) {
+        drawText++;
+        super.drawText(text, x, y, paint);
+    }
+
+    @Override
+    public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+        drawRect++;
+        super.drawRect(left, top, right, bottom, paint);
+    }
+
+    @Override
+    public void drawRect(Rect r, Paint paint) {
+        drawRect++;
+        super.drawRect(r, paint);
+    }
+
+    @Override
+    public void drawColor(int color) {
+        drawColor++;
+        super.drawColor(color);
+    }
+
+    @Override
+    public int saveLayer(float left, float top, float right, float bottom, Paint paint, int saveFlags) {
+        saveLayer++;
+        return super.saveLayer(left, top, right, bottom, paint, saveFlags);
+    }
+}
@@ -0,0 +1,180 @@
+package com.lq.horizontalwheelview;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 触摸轨迹的读写和回放测试，用模拟时钟和 {@link WheelGeometry} 代替真实的view，直接在JVM上运行。
+ */
+public class GestureTraceTest {
+
+    @Test
+    public void trace_roundTrips() throws IOException {
+        GestureTrace trace = buildDrag(1000, 3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        trace.write(out);
+        // 每个采样1字节类型、1字节时间增量、4字节x
+        assertEquals(8 + trace.size() * 6, out.size());
+
+        GestureTrace read = GestureTrace.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(trace.size(), read.size());
+        for (int i = 0; i < trace.size(); i++) {
+            assertEquals(trace.getType(i), read.getType(i));
+            assertEquals(trace.getTime(i), read.getTime(i));
+            assertEquals(trace.getX(i), read.getX(i), 0f);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void read_rejectsOtherData() throws IOException {
+        GestureTrace.read(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 0, 0, 0, 0}));
+    }
+
+    @Test
+    public void replay_batchesHistoryAndCountsFrames() {
+        GestureTrace trace = buildDrag(1000, 3);
+        GeometryTarget target = new GeometryTarget(0);
+        GestureReplayer replayer = new GestureReplayer(trace);
+        replayer.setClock(target);
+        replayer.setFrameRate(60);
+        GestureReplayer.Result result = replayer.replay(target);
+
+        // 每3个采样里有2个历史采样，所以按事件送出的次数是采样数的1/3
+        assertEquals(trace.size() / 3 + 2, target.mDispatchCount);
+        assertEquals(0, result.getDroppedFrames());
+        assertEquals(target.mDispatchCount - 2, result.getCallbackCount());
+        // 从500拖到339.5，偏移-160.5，半宽450对应45度，松手后取整
+        assertEquals(16f, result.getFinalProgress(), 1e-3f);
+        assertTrue(result.getFrameCount() <= trace.getDuration() * 60 / 1000 + 2);
+    }
+
+    @Test
+    public void replay_keepsTheRecordedPace() {
+        GestureTrace trace = buildDrag(1000, 3);
+        GeometryTarget target = new GeometryTarget(0);
+        GestureReplayer replayer = new GestureReplayer(trace);
+        replayer.setClock(target);
+        replayer.setFrameRate(60);
+        replayer.replay(target);
+        // 不掉帧时按vsync等待，回放用的时间与轨迹的时长一致，最多多出一帧
+        long durationNs = trace.getDuration() * 1000000L;
+        assertTrue(target.mNowNs >= durationNs);
+        assertTrue(target.mNowNs <= durationNs + 1000000000L / 60);
+
+        GeometryTarget halfSpeed = new GeometryTarget(0);
+        replayer.setClock(halfSpeed);
+        replayer.setSpeed(0.5f);
+        replayer.replay(halfSpeed);
+        assertTrue(halfSpeed.mNowNs >= durationNs * 2);
+    }
+
+    @Test
+    public void replay_reportsDroppedFramesAtHighRefreshRate() {
+        GestureTrace trace = buildDrag(1000, 3);
+        // 每帧耗时6ms，60Hz下不掉帧，240Hz下每帧错过一个vsync
+        GestureReplayer.Result slow = replay(trace, 60, 6);
+        GestureReplayer.Result fast = replay(trace, 240, 6);
+        assertEquals(0, slow.getDroppedFrames());
+        assertEquals(fast.getFrameCount(), fast.getDroppedFrames());
+        assertEquals(slow.getFinalProgress(), fast.getFinalProgress(), 1e-3f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void frameRate_isLimited() {
+        new GestureReplayer(new GestureTrace()).setFrameRate(GestureReplayer.MAX_FRAME_RATE + 1);
+    }
+
+    private static GestureReplayer.Result replay(GestureTrace trace, float frameRate, int frameCostMs) {
+        GeometryTarget target = new GeometryTarget(frameCostMs);
+        GestureReplayer replayer = new GestureReplayer(trace);
+        replayer.setClock(target);
+        replayer.setFrameRate(frameRate);
+        return replayer.replay(target);
+    }
+
+    /**
+     * 从x=500开始向左拖动，每ms一个采样、每次移动0.5px，每batch个采样组成一个move事件，
+     * 最后停在339.5处抬起。
+     */
+    private static GestureTrace buildDrag(long startTime, int batch) {
+        GestureTrace trace = new GestureTrace();
+        trace.add(GestureTrace.TYPE_DOWN, startTime, 500);
+        float x = 500;
+        int samples = 321;
+        for (int i = 1; i <= samples; i++) {
+            x -= 0.5f;
+            int type = i % batch == 0 ? GestureTrace.TYPE_MOVE : GestureTrace.TYPE_HISTORY;
+            trace.add(type, startTime + i, x);
+        }
+        trace.add(GestureTrace.TYPE_UP, startTime + samples + 1, x);
+        return trace;
+    }
+
+    /** 把事件直接作用在 WheelGeometry 上，绘制一帧时按给定的耗时推进模拟时钟 */
+    private static final class GeometryTarget implements GestureReplayer.Target, GestureReplayer.Clock {
+
+        private final WheelGeometry mGeometry = new WheelGeometry();
+        private final long mFrameCostNs;
+        private long mNowNs;
+        private float mLastX;
+        private int mDispatchCount;
+        private int mCallbackCount;
+
+        GeometryTarget(int frameCostMs) {
+            mFrameCostNs = frameCostMs * 1000000L;
+            mGeometry.setRegion(-45, 45);
+            mGeometry.setBounds(900, 500);
+        }
+
+        @Override
+        public void dispatch(GestureTrace trace, int first, int last, long timeMs) {
+            mDispatchCount++;
+            int type = trace.getType(last);
+            if (type == GestureTrace.TYPE_DOWN) {
+                mLastX = trace.getX(last);
+                return;
+            }
+            if (type == GestureTrace.TYPE_UP) {
+                mGeometry.roundDegree();
+                return;
+            }
+            for (int i = first; i <= last; i++) {
+                mGeometry.applyOffset(trace.getX(i) - mLastX);
+                mLastX = trace.getX(i);
+            }
+            mCallbackCount++;
+        }
+
+        @Override
+        public boolean drawFrame(long frameTimeMs) {
+            mNowNs += mFrameCostNs;
+            return false;
+        }
+
+        @Override
+        public int getCallbackCount() {
+            return mCallbackCount;
+        }
+
+        @Override
+        public float getProgress() {
+            return mGeometry.getCurrentDegree();
+        }
+
+        @Override
+        public long nanoTime() {
+            return mNowNs;
+        }
+
+        @Override
+        public void waitUntil(long deadlineNanos) {
+            mNowNs = Math.max(mNowNs, deadlineNanos);
+        }
+    }
+}
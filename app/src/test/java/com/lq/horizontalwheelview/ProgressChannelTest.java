@@ -0,0 +1,105 @@
+package com.lq.horizontalwheelview;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 只保留最新值的进度通道。
+ */
+public class ProgressChannelTest {
+
+    /** 手动执行任务的executor */
+    private final ArrayDeque<Runnable> mTasks = new ArrayDeque<Runnable>();
+    private final Executor mManual = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            mTasks.add(command);
+        }
+    };
+
+    @Test
+    public void valuesPublishedWhileIdle_areCoalesced() {
+        final List<Float> received = new ArrayList<Float>();
+        ProgressChannel channel = new ProgressChannel(mManual, new ProgressChannel.Consumer() {
+            @Override
+            public void onProgress(float progress, ProgressChannel.Delivery delivery) {
+                received.add(progress);
+            }
+        });
+        channel.publish(1);
+        channel.publish(2);
+        channel.publish(3);
+        assertEquals(1, mTasks.size());
+        mTasks.poll().run();
+        assertEquals(1, received.size());
+        assertEquals(3f, received.get(0), 0f);
+        assertEquals(3, channel.getPublishedCount());
+        assertEquals(1, channel.getDeliveredCount());
+        assertTrue(mTasks.isEmpty());
+    }
+
+    @Test
+    public void inFlightValue_isToldWhenSuperseded() {
+        final ProgressChannel[] holder = new ProgressChannel[1];
+        final List<Boolean> superseded = new ArrayList<Boolean>();
+        final List<Float> received = new ArrayList<Float>();
+        holder[0] = new ProgressChannel(mManual, new ProgressChannel.Consumer() {
+            @Override
+            public void onProgress(float progress, ProgressChannel.Delivery delivery) {
+                received.add(progress);
+                boolean before = delivery.isSuperseded();
+                if (progress == 1) {
+                    // 处理期间又来了两个新的值
+                    holder[0].publish(2);
+                    holder[0].publish(3);
+                }
+                superseded.add(!before && delivery.isSuperseded());
+            }
+        });
+        holder[0].publish(1);
+        mTasks.poll().run();
+        assertTrue(superseded.get(0));
+        // 处理完后自动提交，只交付最新的3
+        assertEquals(1, mTasks.size());
+        mTasks.poll().run();
+        assertEquals(2, received.size());
+        assertEquals(3f, received.get(1), 0f);
+        assertFalse(superseded.get(1));
+    }
+
+    @Test
+    public void busyConsumer_stillGetsTheLastValue() throws InterruptedException {
+        ExecutorService consumer = Executors.newSingleThreadExecutor();
+        final float[] last = new float[1];
+        final CountDownLatch done = new CountDownLatch(1);
+        final ProgressChannel channel = new ProgressChannel(consumer, new ProgressChannel.Consumer() {
+            @Override
+            public void onProgress(float progress, ProgressChannel.Delivery delivery) {
+                last[0] = progress;
+                if (progress == -1) {
+                    done.countDown();
+                }
+            }
+        });
+        for (int i = 0; i < 10000; i++) {
+            channel.publish(i);
+        }
+        channel.publish(-1);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        consumer.shutdown();
+        assertEquals(-1f, last[0], 0f);
+        assertTrue(channel.getDeliveredCount() <= channel.getPublishedCount());
+    }
+}
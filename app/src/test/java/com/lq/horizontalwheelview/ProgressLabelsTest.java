@@ -0,0 +1,99 @@
+package com.lq.horizontalwheelview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 角度文本表的单元测试，包括一次回放拖动过程中的内存分配计数。
+ */
+public class ProgressLabelsTest {
+
+    @Test
+    public void labels_matchOldFormatting() {
+        ProgressLabels labels = new ProgressLabels(-45, 45, 1);
+        for (float p = -45f; p <= 45f; p += 0.25f) {
+            float flag = p >= 0 ? 0.5f : -0.5f;
+            assertEquals(String.valueOf((int)(p + flag) + "°"), labels.get(p));
+        }
+    }
+
+    @Test
+    public void labels_clampOutOfRange() {
+        ProgressLabels labels = new ProgressLabels(-45, 45, 1);
+        assertEquals("-45°", labels.get(-90f));
+        assertEquals("45°", labels.get(100f));
+    }
+
+    @Test
+    public void labels_formatDecimals() {
+        // 3601个文本，不缓存
+        ProgressLabels labels = new ProgressLabels(-180, 180, 0.1f);
+        assertEquals("0.0°", labels.get(0.04f).toString());
+        assertEquals("-0.1°", labels.get(-0.07f).toString());
+        assertEquals("12.3°", labels.get(12.3f).toString());
+        assertEquals("-180.0°", labels.get(-200f).toString());
+        assertEquals("-180.0°", labels.getWidest());
+        assertEquals("5.05°", new ProgressLabels(0, 10, 0.05f).get(5.05f));
+        assertEquals(2, ProgressLabels.decimalsOf(0.05f));
+        assertEquals(0, ProgressLabels.decimalsOf(5f));
+    }
+
+    @Test
+    public void labels_reuseSameInstance() {
+        ProgressLabels labels = new ProgressLabels(-45, 45, 1);
+        assertSame(labels.get(12.2f), labels.get(11.7f));
+    }
+
+    @Test
+    public void replayedGesture_allocatesNothing() {
+        AllocationCounter counter = new AllocationCounter();
+        final ProgressLabels labels = new ProgressLabels(-45, 45, 1);
+        final float[] gesture = buildGesture();
+        final int[] sink = new int[1];
+        long allocated = counter.count(new Runnable() {
+            @Override
+            public void run() {
+                sink[0] += replay(labels, gesture);
+            }
+        }, 200);
+        assertEquals(0, allocated);
+    }
+
+    @Test
+    public void lazyLabels_allocateNothing() {
+        AllocationCounter counter = new AllocationCounter();
+        final ProgressLabels labels = new ProgressLabels(-180, 180, 0.01f);
+        final float[] gesture = buildGesture();
+        final int[] sink = new int[2];
+        long allocated = counter.count(new Runnable() {
+            @Override
+            public void run() {
+                // 每次都换到没有用过的角度，缓存文本的实现在这里一定会分配
+                float shift = sink[1]++ * 0.37f;
+                for (float progress : gesture) {
+                    sink[0] += labels.get(progress * 3 + shift).length();
+                }
+            }
+        }, 200);
+        assertEquals(0, allocated);
+    }
+
+    /** 模拟一次来回拖动：每一帧的进度值 */
+    private static float[] buildGesture() {
+        float[] frames = new float[600];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = (float)(45 * Math.sin(i * Math.PI / 150));
+        }
+        return frames;
+    }
+
+    private static int replay(ProgressLabels labels, float[] gesture) {
+        int chars = 0;
+        for (int i = 0; i < gesture.length; i++) {
+            chars += labels.get(gesture[i]).length();
+        }
+        return chars;
+    }
+}
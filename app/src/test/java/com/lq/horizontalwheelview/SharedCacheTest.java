@@ -0,0 +1,57 @@
+package com.lq.horizontalwheelview;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 共享资源缓存的引用计数和LRU淘汰。
+ */
+public class SharedCacheTest {
+
+    private final List<String> mDestroyed = new ArrayList<String>();
+    private final SharedCache<String, String[]> mCache = new SharedCache<String, String[]>(1) {
+        @Override
+        protected String[] create(String key) {
+            return new String[]{key};
+        }
+
+        @Override
+        protected void destroy(String[] value) {
+            mDestroyed.add(value[0]);
+        }
+    };
+
+    @Test
+    public void sameKey_sharesOneInstance() {
+        String[] a = mCache.acquire("a");
+        assertSame(a, mCache.acquire("a"));
+        assertEquals(2, mCache.getReferenceCount("a"));
+        assertNotSame(a, mCache.acquire("b"));
+        assertEquals(2, mCache.size());
+    }
+
+    @Test
+    public void released_staysIdleUntilEvicted() {
+        String[] a = mCache.acquire("a");
+        mCache.release("a");
+        assertTrue(mDestroyed.isEmpty());
+        assertSame(a, mCache.acquire("a"));
+        mCache.release("a");
+
+        mCache.acquire("b");
+        mCache.release("b");
+        // 只保留1个空闲的，最久未用的a被销毁
+        assertEquals(1, mDestroyed.size());
+        assertEquals("a", mDestroyed.get(0));
+
+        mCache.evictIdle();
+        assertEquals(0, mCache.size());
+    }
+}
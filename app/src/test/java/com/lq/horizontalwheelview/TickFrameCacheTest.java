@@ -0,0 +1,50 @@
+package com.lq.horizontalwheelview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 可见刻度缓存的单元测试：命中、淘汰最久没用到的一组以及布局改变后清空。
+ */
+public class TickFrameCacheTest {
+
+    @Test
+    public void get_returnsObtainedFrame() {
+        TickFrameCache cache = new TickFrameCache(2);
+        cache.reset(10);
+        assertNull(cache.get(1));
+        TickFrameCache.Frame frame = cache.obtain(1);
+        assertEquals(10, frame.x.length);
+        assertSame(frame, cache.get(1));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void obtain_evictsLeastRecentlyUsed() {
+        TickFrameCache cache = new TickFrameCache(2);
+        cache.reset(10);
+        cache.obtain(1);
+        cache.obtain(2);
+        cache.get(1);
+        cache.obtain(3);
+        assertNotNull(cache.get(1));
+        assertNull(cache.get(2));
+        assertNotNull(cache.get(3));
+    }
+
+    @Test
+    public void reset_dropsFramesAndKeepsLargerBuffers() {
+        TickFrameCache cache = new TickFrameCache(2);
+        cache.reset(10);
+        float[] x = cache.obtain(1).x;
+        cache.reset(5);
+        assertNull(cache.get(1));
+        assertEquals(10, cache.getCapacity());
+        assertSame(x, cache.obtain(1).x);
+    }
+}
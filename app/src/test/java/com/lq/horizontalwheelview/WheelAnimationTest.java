@@ -0,0 +1,135 @@
+package com.lq.horizontalwheelview;
+
+import android.app.Activity;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.shadows.ShadowChoreographer;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 多个圆盘共用一个帧回调时的 setProgress 动画和后台降频。
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class WheelAnimationTest {
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private static final ProgressChannel.Consumer IGNORE = new ProgressChannel.Consumer() {
+        @Override
+        public void onProgress(float progress, ProgressChannel.Delivery delivery) {
+        }
+    };
+
+    private HorizontalWheelView mFront;
+    private HorizontalWheelView mBack;
+
+    @Before
+    public void setUp() {
+        // 每个vsync把时钟推进16ms，空闲时会一直出帧直到动画结束
+        ShadowChoreographer.setFrameDelay(Duration.ofMillis(16));
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        LinearLayout root = new LinearLayout(activity);
+        root.setOrientation(LinearLayout.VERTICAL);
+        mFront = new HorizontalWheelView(activity);
+        mBack = new HorizontalWheelView(activity);
+        root.addView(mFront, new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 200));
+        root.addView(mBack, new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 200));
+        activity.setContentView(root);
+        ShadowLooper.idleMainLooper();
+    }
+
+    @Test
+    public void animatedProgress_sharesOneTick() {
+        mFront.setProgress(30, true);
+        mBack.setProgress(-20, true);
+        assertEquals(2, WheelFrameScheduler.getInstance().getClientCount());
+        // 不会立即跳到目标
+        assertEquals(0f, mFront.getProgress(), 0f);
+
+        // 推进几个vsync，两个圆盘都在中途
+        for (int i = 0; i < 6; i++) {
+            ShadowLooper.runMainLooperOneTask();
+        }
+        assertTrue(mFront.getProgress() > 0 && mFront.getProgress() < 30);
+        assertTrue(mBack.getProgress() < 0 && mBack.getProgress() > -20);
+
+        ShadowLooper.idleMainLooper();
+        assertEquals(30f, mFront.getProgress(), 0f);
+        assertEquals(-20f, mBack.getProgress(), 0f);
+        assertEquals(0, WheelFrameScheduler.getInstance().getClientCount());
+    }
+
+    @Test
+    public void backgroundWheel_isThrottled() {
+        ProgressChannel front = new ProgressChannel(DIRECT, IGNORE);
+        ProgressChannel back = new ProgressChannel(DIRECT, IGNORE);
+        mFront.setProgressChannel(front);
+        mBack.setProgressChannel(back);
+        mFront.setSelected(true);
+        mFront.setBackgroundFrameDivisor(3);
+        mBack.setBackgroundFrameDivisor(3);
+
+        mFront.setProgress(40, true);
+        mBack.setProgress(40, true);
+        ShadowLooper.idleMainLooper();
+
+        assertEquals(40f, mFront.getProgress(), 0f);
+        assertEquals(40f, mBack.getProgress(), 0f);
+        assertTrue(back.getPublishedCount() * 2 < front.getPublishedCount());
+    }
+
+    @Test
+    public void outOfRangeProgress_isClamped() {
+        // 直接设置时会限制到最大值
+        mFront.setProgress(1000);
+        float max = mFront.getProgress();
+        mFront.setProgress(1000, true);
+        // 已经在最大值，不需要动画
+        assertEquals(0, WheelFrameScheduler.getInstance().getClientCount());
+
+        mFront.setProgress(0);
+        mFront.setProgress(1000, true);
+        for (int i = 0; i < 3; i++) {
+            ShadowLooper.runMainLooperOneTask();
+        }
+        float progress = mFront.getProgress();
+        assertTrue(progress > 0 && progress < max);
+        // 重复设置同一个超出范围的值不会重新开始动画
+        mFront.setProgress(1000, true);
+        ShadowLooper.runMainLooperOneTask();
+        assertTrue(mFront.getProgress() > progress);
+
+        ShadowLooper.idleMainLooper();
+        assertEquals(max, mFront.getProgress(), 0f);
+    }
+
+    @Test
+    public void plainSetProgress_cancelsAnimation() {
+        mFront.setProgress(30, true);
+        mFront.setProgress(10);
+        assertEquals(10f, mFront.getProgress(), 0f);
+        ShadowLooper.idleMainLooper();
+        assertEquals(10f, mFront.getProgress(), 0f);
+    }
+}
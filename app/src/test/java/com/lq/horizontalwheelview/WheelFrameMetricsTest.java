@@ -0,0 +1,56 @@
+package com.lq.horizontalwheelview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 每帧统计直方图的单元测试。
+ */
+public class WheelFrameMetricsTest {
+
+    @Test
+    public void histogram_bucketsByPowerOfTwo() {
+        assertEquals(0, WheelFrameMetrics.Histogram.bucketOf(0));
+        assertEquals(1, WheelFrameMetrics.Histogram.bucketOf(1));
+        assertEquals(2, WheelFrameMetrics.Histogram.bucketOf(3));
+        assertEquals(11, WheelFrameMetrics.Histogram.bucketOf(1500));
+        assertEquals(WheelFrameMetrics.Histogram.BUCKET_COUNT - 1,
+                WheelFrameMetrics.Histogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void histogram_tracksSummary() {
+        WheelFrameMetrics.Histogram histogram = new WheelFrameMetrics.Histogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 10);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(10, histogram.getMin());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(505, histogram.getMean(), 1e-9);
+        // 第50个值是500，落在[256, 512)
+        assertEquals(511, histogram.getPercentile(50));
+        assertEquals(1000, histogram.getPercentile(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(90));
+    }
+
+    @Test
+    public void record_allocatesNothing() {
+        final WheelFrameMetrics metrics = new WheelFrameMetrics();
+        long allocated = new AllocationCounter().count(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 1000; i++) {
+                    metrics.getDrawDuration().record(i * 7);
+                    metrics.getTicksPerFrame().record(23);
+                }
+                metrics.reset();
+            }
+        }, 100);
+        assertEquals(0, allocated);
+    }
+}
@@ -0,0 +1,263 @@
+package com.lq.horizontalwheelview;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 圆盘几何计算的单元测试，直接在JVM上运行。
+ */
+public class WheelGeometryTest {
+
+    private static final int WIDTH = 900;
+    private static final int CENTER_X = 500;
+
+    private WheelGeometry mGeometry;
+
+    @Before
+    public void setUp() {
+        mGeometry = new WheelGeometry();
+        mGeometry.setRegion(-45, 45);
+        mGeometry.setBounds(WIDTH, CENTER_X);
+    }
+
+    @Test
+    public void offset_mapsLinearlyToDegree() {
+        mGeometry.applyOffset(-WIDTH / 4f);
+        assertEquals(22.5f, mGeometry.getCurrentDegree(), 1e-4f);
+        mGeometry.applyOffset(WIDTH / 2f);
+        assertEquals(-22.5f, mGeometry.getCurrentDegree(), 1e-4f);
+        assertEquals(-22.5f, mGeometry.getDegreeByOffset(mGeometry.getOffsetByDegree(-22.5f)), 1e-4f);
+        assertEquals(45f, mGeometry.getDegreeByOffset(-WIDTH), 0f);
+    }
+
+    @Test
+    public void applyOffset_clampsAndRoundsAtBoundary() {
+        assertTrue(mGeometry.applyOffset(-WIDTH));
+        assertEquals(45f, mGeometry.getCurrentDegree(), 0f);
+        assertEquals(-WIDTH / 2f, mGeometry.getTotalOffsetX(), 0f);
+        assertFalse(mGeometry.applyOffset(10));
+    }
+
+    @Test
+    public void roundDegree_alignsOffset() {
+        mGeometry.applyOffset(-30);
+        mGeometry.roundDegree();
+        assertEquals(3f, mGeometry.getCurrentDegree(), 0f);
+        assertEquals(-30f, mGeometry.getTotalOffsetX(), 1e-4f);
+    }
+
+    @Test
+    public void setDegree_updatesOffset() {
+        mGeometry.setDegree(-15);
+        assertEquals(150f, mGeometry.getTotalOffsetX(), 1e-4f);
+        mGeometry.setDegree(100);
+        assertEquals(45f, mGeometry.getCurrentDegree(), 0f);
+        assertEquals(-450f, mGeometry.getTotalOffsetX(), 1e-4f);
+    }
+
+    @Test
+    public void setDegree_sameValueIsNoOp() {
+        assertTrue(mGeometry.setDegree(10));
+        int version = mGeometry.getVisibleVersion();
+        assertFalse(mGeometry.setDegree(10));
+        assertEquals(version, mGeometry.getVisibleVersion());
+        // 超出范围的值取边界，与当前角度相同时也不算变化
+        assertTrue(mGeometry.setDegree(-100));
+        assertFalse(mGeometry.setDegree(-90));
+        assertEquals(-45f, mGeometry.getCurrentDegree(), 0f);
+    }
+
+    @Test
+    public void setBounds_rescalesInPlace() {
+        mGeometry.setDegree(-15);
+        int version = mGeometry.getVisibleVersion();
+        mGeometry.setBounds(WIDTH, CENTER_X);
+        assertEquals(version, mGeometry.getVisibleVersion());
+
+        mGeometry.setBounds(WIDTH * 2, CENTER_X * 2);
+        assertEquals(-15f, mGeometry.getCurrentDegree(), 0f);
+        assertEquals(300f, mGeometry.getTotalOffsetX(), 1e-4f);
+        int count = mGeometry.getVisibleCount();
+        for (int i = 0; i < count; i++) {
+            float x = mGeometry.getVisibleX(i);
+            assertTrue(x >= CENTER_X * 2 - WIDTH - 1e-3f && x <= CENTER_X * 2 + WIDTH + 1e-3f);
+        }
+    }
+
+    @Test
+    public void calibrations_atRestAreSymmetric() {
+        int count = mGeometry.getVisibleCount();
+        // 和原来一样，圆盘上-44度到44度，每4度一个刻度
+        assertEquals(23, count);
+        assertEquals(-11, mGeometry.getFirstVisibleIndex());
+        for (int i = 0; i < count; i++) {
+            float x = mGeometry.getVisibleX(i);
+            assertTrue(x >= CENTER_X - WIDTH / 2f - 1e-3f && x <= CENTER_X + WIDTH / 2f + 1e-3f);
+            assertEquals(CENTER_X * 2 - x, mGeometry.getVisibleX(count - 1 - i), 1e-3f);
+        }
+        assertEquals(CENTER_X, mGeometry.getVisibleX(11), 1e-3f);
+    }
+
+    @Test
+    public void restore_undoesMovePastBoundary() {
+        mGeometry.setRegion(-10, 30);
+        mGeometry.applyOffset(-WIDTH / 2f * 29.6f / 30);
+        float offset = mGeometry.getTotalOffsetX();
+        float degree = mGeometry.getCurrentDegree();
+        // 越过边界时被取整到30度，反向移动回不到原处
+        assertTrue(mGeometry.applyOffset(-40));
+        mGeometry.applyOffset(40);
+        assertTrue(Math.abs(mGeometry.getCurrentDegree() - degree) > 0.1f);
+
+        mGeometry.restore(offset, degree);
+        assertEquals(offset, mGeometry.getTotalOffsetX(), 0f);
+        assertEquals(degree, mGeometry.getCurrentDegree(), 0f);
+    }
+
+    @Test
+    public void calibrations_defaultSpacing() {
+        // 和原来一样，中点两侧的刻度在圆盘上相隔4度
+        float spacing = mGeometry.getVisibleX(12) - mGeometry.getVisibleX(11);
+        assertEquals(mGeometry.getRadius() * Math.sin(Math.toRadians(4)), spacing, 1e-3);
+    }
+
+    @Test
+    public void zeroRange_stillDrawsTicks() {
+        mGeometry.setRegion(0, 0);
+        assertEquals(23, mGeometry.getVisibleCount());
+        assertEquals(CENTER_X, zeroCalibrationX(), 1e-3f);
+        assertTrue(mGeometry.applyOffset(30));
+        assertEquals(0f, mGeometry.getCurrentDegree(), 0f);
+    }
+
+    @Test
+    public void calibrations_followTheFinger() {
+        mGeometry.applyOffset(20);
+        assertEquals(CENTER_X + 20, zeroCalibrationX(), 0.01f);
+        mGeometry.applyOffset(-20);
+        assertEquals(CENTER_X, zeroCalibrationX(), 1e-3f);
+    }
+
+    @Test
+    public void calibrations_doNotDrift() {
+        for (int i = 0; i < 5000; i++) {
+            mGeometry.applyOffset(i % 100 < 50 ? 3.3f : -3.3f);
+        }
+        float degree = mGeometry.getCurrentDegree();
+        float[] dragged = new float[mGeometry.getVisibleCount()];
+        for (int i = 0; i < dragged.length; i++) {
+            dragged[i] = mGeometry.getVisibleX(i);
+        }
+        WheelGeometry fresh = new WheelGeometry();
+        fresh.setRegion(-45, 45);
+        fresh.setBounds(WIDTH, CENTER_X);
+        fresh.setDegree(degree);
+        assertEquals(fresh.getVisibleCount(), dragged.length);
+        for (int i = 0; i < dragged.length; i++) {
+            assertEquals(fresh.getVisibleX(i), dragged[i], 1e-3f);
+        }
+    }
+
+    @Test
+    public void visibleCalibrations_matchBruteForce() {
+        double radPerDegree = Math.sin(WheelGeometry.VISIBLE_HALF_DEGREE) / 45;
+        double step = radPerDegree * WheelGeometry.DEFAULT_CALIBRATION_STEP;
+        for (int frame = 0; frame < 200; frame++) {
+            mGeometry.applyOffset(frame % 40 < 20 ? 7.3f : -11.1f);
+            double rotation = mGeometry.getRotation();
+            double radius = mGeometry.getRadius();
+            int visible = 0;
+            for (int k = -100; k <= 100; k++) {
+                double degree = k * step + rotation;
+                if (Math.abs(degree) > WheelGeometry.VISIBLE_HALF_DEGREE) {
+                    continue;
+                }
+                assertEquals(mGeometry.getFirstVisibleIndex() + visible, k);
+                assertEquals(CENTER_X + radius * Math.sin(degree), mGeometry.getVisibleX(visible), 0.01);
+                visible++;
+            }
+            assertEquals(visible, mGeometry.getVisibleCount());
+        }
+    }
+
+    @Test
+    public void scrubbing_reusesCachedTicks() {
+        float[] offsets = {-30, -17.5f, -5, 7.5f};
+        for (float offset : offsets) {
+            mGeometry.applyOffset(offset);
+        }
+        int hits = mGeometry.getTickFrameHits();
+        // 沿原路拖回去，经过的都是已经算过的位置
+        for (int i = offsets.length - 1; i > 0; i--) {
+            mGeometry.applyOffset(-offsets[i]);
+            assertMatchesFreshGeometry();
+        }
+        assertEquals(hits + offsets.length - 1, mGeometry.getTickFrameHits());
+    }
+
+    private void assertMatchesFreshGeometry() {
+        WheelGeometry fresh = new WheelGeometry();
+        fresh.setRegion(-45, 45);
+        fresh.setBounds(WIDTH, CENTER_X);
+        fresh.applyOffset(mGeometry.getTotalOffsetX());
+        assertEquals(fresh.getFirstVisibleIndex(), mGeometry.getFirstVisibleIndex());
+        assertEquals(fresh.getVisibleCount(), mGeometry.getVisibleCount());
+        for (int i = 0; i < fresh.getVisibleCount(); i++) {
+            assertEquals(fresh.getVisibleX(i), mGeometry.getVisibleX(i), 1e-3f);
+        }
+    }
+
+    @Test
+    public void fineScale_isDecimatedByPixelWidth() {
+        mGeometry.setRegion(-180, 180);
+        mGeometry.setResolution(0.1f);
+        mGeometry.setCalibrationStep(0.1f, 10);
+        // 0.1度一个刻度，中点处间距不到1px，需要抽稀
+        assertTrue(mGeometry.getDecimation() > 1);
+        int bound = (int)(WheelGeometry.VISIBLE_DEGREE * mGeometry.getRadius()
+                / WheelGeometry.DEFAULT_MIN_CALIBRATION_SPACING) + 2;
+        for (int i = 0; i < 50; i++) {
+            mGeometry.applyOffset(i < 25 ? 13 : -17);
+            assertTrue(mGeometry.getVisibleCount() <= bound);
+            assertTrue(mGeometry.getVisibleCount() > 0);
+        }
+        mGeometry.roundDegree();
+        float degree = mGeometry.getCurrentDegree();
+        assertEquals(Math.round(degree * 10) / 10f, degree, 1e-4f);
+    }
+
+    @Test
+    public void majorCalibrations_areEveryNth() {
+        mGeometry.setCalibrationStep(1, 5);
+        mGeometry.applyOffset(-37);
+        long first = mGeometry.getFirstVisibleIndex();
+        int decimation = mGeometry.getDecimation();
+        for (int i = 0; i < mGeometry.getVisibleCount(); i++) {
+            long index = first + (long) i * decimation;
+            assertEquals(index % 5 == 0, mGeometry.isVisibleMajor(i));
+        }
+    }
+
+    private float zeroCalibrationX() {
+        return mGeometry.getVisibleX((int) -mGeometry.getFirstVisibleIndex());
+    }
+
+    @Test
+    public void replayedGesture_allocatesNothing() {
+        AllocationCounter counter = new AllocationCounter();
+        long allocated = counter.count(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 600; i++) {
+                    mGeometry.applyOffset(i % 200 < 100 ? 3.5f : -3.5f);
+                }
+                mGeometry.roundDegree();
+            }
+        }, 100);
+        assertEquals(0, allocated);
+    }
+}
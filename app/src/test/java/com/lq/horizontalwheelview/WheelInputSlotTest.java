@@ -0,0 +1,59 @@
+package com.lq.horizontalwheelview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 主线程到渲染线程的输入状态槽。
+ */
+public class WheelInputSlotTest {
+
+    private final WheelInputSlot mSlot = new WheelInputSlot();
+
+    @Test
+    public void movesBetweenFrames_areMerged() {
+        mSlot.press();
+        mSlot.move(3);
+        mSlot.move(-1.5f);
+        int events = mSlot.consume();
+        assertEquals(WheelInputSlot.EVENT_STARTED | WheelInputSlot.EVENT_MOVED, events);
+        assertEquals(1.5f, mSlot.getDelta(), 0f);
+        assertTrue(mSlot.isPressed());
+
+        assertEquals(0, mSlot.consume());
+        mSlot.move(2);
+        assertEquals(WheelInputSlot.EVENT_MOVED, mSlot.consume());
+        assertEquals(2f, mSlot.getDelta(), 0f);
+    }
+
+    @Test
+    public void release_carriesVelocity() {
+        mSlot.press();
+        mSlot.consume();
+        mSlot.move(5);
+        mSlot.release(1200);
+        int events = mSlot.consume();
+        assertEquals(WheelInputSlot.EVENT_MOVED | WheelInputSlot.EVENT_RELEASED, events);
+        assertEquals(5f, mSlot.getDelta(), 0f);
+        assertEquals(1200f, mSlot.getReleaseVelocity(), 0f);
+        assertFalse(mSlot.isPressed());
+        assertEquals(0, mSlot.consume());
+    }
+
+    @Test
+    public void gestureWithinOneFrame_isNotLost() {
+        mSlot.press();
+        mSlot.move(-4);
+        mSlot.release(0);
+        mSlot.press();
+        mSlot.move(7);
+        mSlot.release(0);
+        // 只能看到最后一次拖动，但开始、移动和结束都不会丢
+        int events = mSlot.consume();
+        assertEquals(WheelInputSlot.EVENT_STARTED | WheelInputSlot.EVENT_MOVED | WheelInputSlot.EVENT_RELEASED, events);
+        assertEquals(7f, mSlot.getDelta(), 0f);
+    }
+}
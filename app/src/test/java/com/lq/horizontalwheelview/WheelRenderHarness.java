@@ -0,0 +1,215 @@
+package com.lq.horizontalwheelview;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 离屏渲染圆盘的测试工具：完成measure、layout后按脚本调用 setProgress 或发送拖动事件，
+ * 每一帧都画到bitmap上，记录绘制操作数和耗时，并与golden图片比较。
+ * golden图片放在 src/test/golden 下，需要提交到仓库；缺少golden时测试失败，
+ * 用 ./gradlew test -Pgolden.record=true 重新生成全部golden。
+ */
+class WheelRenderHarness {
+
+    /** 每个颜色通道允许的误差 */
+    private static final int CHANNEL_TOLERANCE = 2;
+
+    private final HorizontalWheelView mView;
+    private final Bitmap mBitmap;
+    private final CountingCanvas mCanvas;
+    private final File mGoldenDir;
+    private final boolean mRecord;
+    private final List<Frame> mFrames = new ArrayList<Frame>();
+    private long mDownTime;
+    private float mTouchX;
+
+    /** 一帧的统计 */
+    static final class Frame {
+        final String name;
+        final int ops;
+        final int drawLines;
+        final int drawPath;
+        final int drawBitmap;
+        final int drawText;
+        final long drawNanos;
+        /** 与golden不一致的像素数，重新生成golden时为0 */
+        final int mismatchedPixels;
+        /** 这一帧画面的拷贝 */
+        final Bitmap bitmap;
+
+        Frame(String name, CountingCanvas canvas, long drawNanos, int mismatchedPixels, Bitmap bitmap) {
+            this.name = name;
+            this.ops = canvas.getOpCount();
+            this.drawLines = canvas.drawLines;
+            this.drawPath = canvas.drawPath;
+            this.drawBitmap = canvas.drawBitmap;
+            this.drawText = canvas.drawText;
+            this.drawNanos = drawNanos;
+            this.mismatchedPixels = mismatchedPixels;
+            this.bitmap = bitmap;
+        }
+    }
+
+    WheelRenderHarness(Context context, int width, int height) {
+        mView = new HorizontalWheelView(context);
+        mView.setFlingEnabled(false);
+        mView.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+        mView.layout(0, 0, mView.getMeasuredWidth(), mView.getMeasuredHeight());
+        mBitmap = Bitmap.createBitmap(mView.getWidth(), mView.getHeight(), Bitmap.Config.ARGB_8888);
+        mCanvas = new CountingCanvas(mBitmap);
+        mGoldenDir = new File(System.getProperty("golden.dir", "src/test/golden"));
+        mRecord = Boolean.getBoolean("golden.record");
+    }
+
+    HorizontalWheelView getView() {
+        return mView;
+    }
+
+    List<Frame> getFrames() {
+        return mFrames;
+    }
+
+    Frame setProgress(String name, float progress) {
+        mView.setProgress(progress);
+        return render(name);
+    }
+
+    /** 在x处按下 */
+    void down(float x) {
+        mDownTime = SystemClock.uptimeMillis();
+        mTouchX = x;
+        dispatch(MotionEvent.ACTION_DOWN, x);
+    }
+
+    /** 手指移动到x，然后渲染一帧 */
+    Frame moveTo(String name, float x) {
+        mTouchX = x;
+        dispatch(MotionEvent.ACTION_MOVE, x);
+        return render(name);
+    }
+
+    Frame up(String name) {
+        dispatch(MotionEvent.ACTION_UP, mTouchX);
+        return render(name);
+    }
+
+    private void dispatch(int action, float x) {
+        MotionEvent event = MotionEvent.obtain(mDownTime, SystemClock.uptimeMillis(), action,
+                x, mView.getHeight() / 2f, 0);
+        mView.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    /** 整个view画一帧到bitmap上，并与golden比较 */
+    Frame render(String name) {
+        mBitmap.eraseColor(0);
+        mCanvas.reset();
+        long start = System.nanoTime();
+        mView.draw(mCanvas);
+        long nanos = System.nanoTime() - start;
+        Frame frame = new Frame(name, mCanvas, nanos, compareWithGolden(name),
+                mBitmap.copy(Bitmap.Config.ARGB_8888, false));
+        mFrames.add(frame);
+        return frame;
+    }
+
+    private int compareWithGolden(String name) {
+        File golden = new File(mGoldenDir, name + ".png");
+        if (mRecord) {
+            writePng(golden);
+            return 0;
+        }
+        if (!golden.exists()) {
+            throw new AssertionError("Missing golden " + golden + ", record it with -Pgolden.record=true");
+        }
+        Bitmap expected = BitmapFactory.decodeFile(golden.getPath());
+        if (expected == null || expected.getWidth() != mBitmap.getWidth()
+                || expected.getHeight() != mBitmap.getHeight()) {
+            return mBitmap.getWidth() * mBitmap.getHeight();
+        }
+        return countMismatches(expected, mBitmap);
+    }
+
+    /** 两张同样大小的图片中超出误差的像素数 */
+    static int countMismatches(Bitmap expected, Bitmap actual) {
+        int width = actual.getWidth();
+        int height = actual.getHeight();
+        int[] a = new int[width];
+        int[] b = new int[width];
+        int mismatches = 0;
+        for (int y = 0; y < height; y++) {
+            expected.getPixels(a, 0, width, 0, y, width, 1);
+            actual.getPixels(b, 0, width, 0, y, width, 1);
+            for (int x = 0; x < width; x++) {
+                if (!colorsMatch(a[x], b[x])) {
+                    mismatches++;
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    private static boolean colorsMatch(int c1, int c2) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            int d = ((c1 >>> shift) & 0xff) - ((c2 >>> shift) & 0xff);
+            if (Math.abs(d) > CHANNEL_TOLERANCE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writePng(File file) {
+        file.getParentFile().mkdirs();
+        FileOutputStream out = null;
+        try {
+            out = new FileOutputStream(file);
+            mBitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+        } catch (IOException e) {
+            throw new AssertionError("Cannot write golden " + file + ": " + e);
+        } finally {
+            closeQuietly(out);
+        }
+    }
+
+    /** 每帧的统计写成csv，CI上可以和上一次的结果比较 */
+    void writeReport(File file) {
+        file.getParentFile().mkdirs();
+        PrintWriter writer = null;
+        try {
+            writer = new PrintWriter(file, "UTF-8");
+            writer.println("frame,ops,drawLines,drawPath,drawBitmap,drawText,drawNanos,mismatchedPixels");
+            for (Frame f : mFrames) {
+                writer.println(f.name + "," + f.ops + "," + f.drawLines + "," + f.drawPath + ","
+                        + f.drawBitmap + "," + f.drawText + "," + f.drawNanos + "," + f.mismatchedPixels);
+            }
+        } catch (IOException e) {
+            throw new AssertionError("Cannot write report " + file + ": " + e);
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+
+    private static void closeQuietly(FileOutputStream out) {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.lq.horizontalwheelview;
+
+import android.content.Context;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 在Robolectric的原生图形模式下离屏渲染圆盘，不需要设备：
+ * 检查每帧的像素与golden一致、两种刻度绘制方式结果相同，以及每帧的绘制操作数。
+ * 原生图形模式在API 28上缺少 HardwareRenderer，所以在API 33上运行。
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class WheelRenderingTest {
+
+    private static final int WIDTH = 720;
+    private static final int HEIGHT = 200;
+    /** 两种方式裁剪进度刻度时边缘抗锯齿允许的不一致像素数，目前最多10个 */
+    private static final int MODE_MISMATCH_LIMIT = 16;
+
+    @Test
+    public void scriptedFrames_matchGoldens() {
+        checkGoldens(HorizontalWheelView.RENDER_MODE_CLIP, "clip");
+        checkGoldens(HorizontalWheelView.RENDER_MODE_LAYER, "layer");
+    }
+
+    @Test
+    public void renderModes_drawTheSamePixels() {
+        WheelRenderHarness clip = newHarness(HorizontalWheelView.RENDER_MODE_CLIP);
+        WheelRenderHarness layer = newHarness(HorizontalWheelView.RENDER_MODE_LAYER);
+        List<WheelRenderHarness.Frame> clipFrames = runScript(clip, "clip");
+        List<WheelRenderHarness.Frame> layerFrames = runScript(layer, "layer");
+        assertEquals(clipFrames.size(), layerFrames.size());
+        for (int i = 0; i < clipFrames.size(); i++) {
+            int mismatches = WheelRenderHarness.countMismatches(clipFrames.get(i).bitmap, layerFrames.get(i).bitmap);
+            assertTrue(clipFrames.get(i).name + " mismatched pixels: " + mismatches,
+                    mismatches <= MODE_MISMATCH_LIMIT);
+        }
+    }
+
+    @Test
+    public void eachFrame_staysWithinDrawOpBudget() {
+        WheelRenderHarness harness = newHarness(HorizontalWheelView.RENDER_MODE_CLIP);
+        for (WheelRenderHarness.Frame frame : runScript(harness, "clip")) {
+            // 普通刻度和进度刻度各一次 drawLines
+            assertTrue(frame.name, frame.drawLines <= 2);
+            // 只有上下两个游标是Path
+            assertEquals(frame.name, 2, frame.drawPath);
+            // 角度文本来自字形图集
+            assertEquals(frame.name, 0, frame.drawText);
+        }
+    }
+
+    private void checkGoldens(int renderMode, String prefix) {
+        WheelRenderHarness harness = newHarness(renderMode);
+        List<WheelRenderHarness.Frame> frames = runScript(harness, prefix);
+        harness.writeReport(new File("build/reports/wheel-render/" + prefix + ".csv"));
+        for (WheelRenderHarness.Frame frame : frames) {
+            assertEquals(frame.name, 0, frame.mismatchedPixels);
+        }
+    }
+
+    private static WheelRenderHarness newHarness(int renderMode) {
+        Context context = RuntimeEnvironment.getApplication();
+        WheelRenderHarness harness = new WheelRenderHarness(context, WIDTH, HEIGHT);
+        harness.getView().setRenderMode(renderMode);
+        return harness;
+    }
+
+    /** 固定的一组操作：静止、设置角度、来回拖动、松手取整 */
+    private static List<WheelRenderHarness.Frame> runScript(WheelRenderHarness harness, String prefix) {
+        harness.render(prefix + "_rest");
+        harness.setProgress(prefix + "_progress_12", 12.4f);
+        harness.setProgress(prefix + "_progress_min", -45);
+        harness.setProgress(prefix + "_progress_0", 0);
+        float x = WIDTH / 2f;
+        harness.down(x);
+        for (int i = 1; i <= 6; i++) {
+            harness.moveTo(prefix + "_drag_" + i, x - i * 25);
+        }
+        harness.moveTo(prefix + "_drag_back", x + 40);
+        harness.up(prefix + "_release");
+        return harness.getFrames();
+    }
+}
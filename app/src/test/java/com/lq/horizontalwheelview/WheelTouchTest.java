@@ -0,0 +1,123 @@
+package com.lq.horizontalwheelview;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 触摸事件处理：取消事件、多指切换、批量事件中的历史位置和拖动结束时的进度回调。
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class WheelTouchTest {
+
+    private static final int WIDTH = 900;
+
+    private HorizontalWheelView mView;
+    private long mDownTime;
+
+    @Before
+    public void setUp() {
+        mView = new HorizontalWheelView(RuntimeEnvironment.getApplication());
+        mView.setFlingEnabled(false);
+        mView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(200, View.MeasureSpec.EXACTLY));
+        mView.layout(0, 0, mView.getMeasuredWidth(), mView.getMeasuredHeight());
+        mDownTime = SystemClock.uptimeMillis();
+    }
+
+    @Test
+    public void cancel_roundsAndStopsTracking() {
+        send(MotionEvent.ACTION_DOWN, 450);
+        send(MotionEvent.ACTION_MOVE, 403);
+        send(MotionEvent.ACTION_CANCEL, 403);
+        assertEquals(Math.round(mView.getProgress()), mView.getProgress(), 0f);
+        // 取消后新的move不再移动圆盘
+        float progress = mView.getProgress();
+        send(MotionEvent.ACTION_MOVE, 300);
+        assertEquals(progress, mView.getProgress(), 0f);
+    }
+
+    @Test
+    public void secondPointer_takesOverWithoutJump() {
+        send(MotionEvent.ACTION_DOWN, 450);
+        float progress = mView.getProgress();
+        // 第二根手指在很远的地方按下，不应该让圆盘跳动
+        sendTwoPointers(MotionEvent.ACTION_POINTER_DOWN | (1 << MotionEvent.ACTION_POINTER_INDEX_SHIFT), 450, 100);
+        assertEquals(progress, mView.getProgress(), 0f);
+        // 第二根手指左移50px，相当于顺时针旋转5度
+        sendTwoPointers(MotionEvent.ACTION_MOVE, 450, 50);
+        assertEquals(5f, mView.getProgress(), 1e-3f);
+    }
+
+    @Test
+    public void lowLatencyInput_consumesHistoricalSamples() {
+        mView.setLowLatencyInput(true);
+        send(MotionEvent.ACTION_DOWN, 450);
+        MotionEvent move = MotionEvent.obtain(mDownTime, mDownTime + 8, MotionEvent.ACTION_MOVE, 440, 100, 0);
+        move.addBatch(mDownTime + 16, 405, 100, 1, 1, 0);
+        mView.onTouchEvent(move);
+        move.recycle();
+        assertEquals(4.5f, mView.getProgress(), 1e-3f);
+    }
+
+    @Test
+    public void onChangeDispatch_deliversSettledProgress() {
+        final float[] delivered = new float[1];
+        ProgressDispatcher dispatcher = new ProgressDispatcher(mView);
+        dispatcher.setMode(HorizontalWheelView.DISPATCH_ON_CHANGE);
+        dispatcher.setListener(new HorizontalWheelView.OnSeekBarChangeListener() {
+            @Override
+            public void onProgressChanged(HorizontalWheelView seekBar, float progress, boolean fromUser) {
+                delivered[0] = progress;
+            }
+
+            @Override
+            public void onStartTrackingTouch(HorizontalWheelView seekBar) {
+            }
+
+            @Override
+            public void onStopTrackingTouch(HorizontalWheelView seekBar) {
+            }
+        });
+        dispatcher.onStartTracking();
+        dispatcher.onProgressChanged(12.96f);
+        dispatcher.run();
+        assertEquals(12.96f, delivered[0], 0f);
+        // 停下来的角度取整后与上次回调相同，仍然要回调最终角度
+        dispatcher.flush(13f);
+        assertEquals(13f, delivered[0], 0f);
+        assertEquals(2, dispatcher.getDispatchCount());
+    }
+
+    private void send(int action, float x) {
+        MotionEvent event = MotionEvent.obtain(mDownTime, SystemClock.uptimeMillis(), action, x, 100, 0);
+        mView.onTouchEvent(event);
+        event.recycle();
+    }
+
+    private void sendTwoPointers(int action, float x0, float x1) {
+        MotionEvent.PointerProperties[] props = new MotionEvent.PointerProperties[2];
+        MotionEvent.PointerCoords[] coords = new MotionEvent.PointerCoords[2];
+        for (int i = 0; i < 2; i++) {
+            props[i] = new MotionEvent.PointerProperties();
+            props[i].id = i;
+            coords[i] = new MotionEvent.PointerCoords();
+            coords[i].x = i == 0 ? x0 : x1;
+            coords[i].y = 100;
+        }
+        MotionEvent event = MotionEvent.obtain(mDownTime, SystemClock.uptimeMillis(), action, 2, props, coords,
+                0, 0, 1, 1, 0, 0, 0, 0);
+        mView.onTouchEvent(event);
+        event.recycle();
+    }
+}
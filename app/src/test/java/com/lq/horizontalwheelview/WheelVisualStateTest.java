@@ -0,0 +1,57 @@
+package com.lq.horizontalwheelview;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 画面状态key的单元测试：边界处继续拖动和亚像素移动都不算变化。
+ */
+public class WheelVisualStateTest {
+
+    private WheelGeometry mGeometry;
+    private WheelVisualState mState;
+
+    @Before
+    public void setUp() {
+        mGeometry = new WheelGeometry();
+        mGeometry.setRegion(-45, 45);
+        mGeometry.setBounds(900, 500);
+        mState = new WheelVisualState();
+        assertTrue(mState.update(mGeometry, 0));
+    }
+
+    @Test
+    public void unchangedState_isSkipped() {
+        assertFalse(mState.update(mGeometry, 0));
+        assertTrue(mState.update(mGeometry, 1));
+    }
+
+    @Test
+    public void subPixelMoves_areSkippedUntilTheyAddUp() {
+        mGeometry.applyOffset(0.2f);
+        assertFalse(mState.update(mGeometry, 0));
+        mGeometry.applyOffset(0.2f);
+        assertFalse(mState.update(mGeometry, 0));
+        mGeometry.applyOffset(0.2f);
+        assertTrue(mState.update(mGeometry, 0));
+    }
+
+    @Test
+    public void dragPinnedAtBoundary_isSkipped() {
+        mGeometry.applyOffset(-900);
+        assertTrue(mState.update(mGeometry, 0));
+        for (int i = 0; i < 10; i++) {
+            mGeometry.applyOffset(-15);
+            assertFalse(mState.update(mGeometry, 0));
+        }
+    }
+
+    @Test
+    public void invalidate_forcesNextUpdate() {
+        mState.invalidate();
+        assertTrue(mState.update(mGeometry, 0));
+    }
+}
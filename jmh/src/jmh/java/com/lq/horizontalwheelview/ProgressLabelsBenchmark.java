@@ -0,0 +1,48 @@
+package com.lq.horizontalwheelview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getProgressStr 的基准测试：查表与原来的字符串拼接对比。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProgressLabelsBenchmark {
+
+    private ProgressLabels mLabels;
+    private float mProgress;
+
+    @Setup
+    public void setUp() {
+        mLabels = new ProgressLabels(-45, 45, 1);
+    }
+
+    private float nextProgress() {
+        mProgress += 0.37f;
+        if (mProgress > 45) {
+            mProgress = -45;
+        }
+        return mProgress;
+    }
+
+    @Benchmark
+    public CharSequence lookup() {
+        return mLabels.get(nextProgress());
+    }
+
+    @Benchmark
+    public String concat() {
+        float progress = nextProgress();
+        float flag = progress >= 0 ? 0.5f : -0.5f;
+        return String.valueOf((int)(progress + flag) + ProgressLabels.DU);
+    }
+}
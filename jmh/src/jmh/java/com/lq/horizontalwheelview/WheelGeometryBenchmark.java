@@ -0,0 +1,110 @@
+package com.lq.horizontalwheelview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 圆盘几何计算的基准测试：偏移量与角度之间的换算、完整的一次move、可见刻度的更新，
+ * 以及填充 drawLines 刻度端点的过程。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WheelGeometryBenchmark {
+
+    @Param({"720", "1080", "1440"})
+    public int width;
+
+    /** 旋转范围 */
+    @Param({"45", "180"})
+    public int range;
+
+    /** 刻度间隔，越小刻度越多 */
+    @Param({"4", "0.1"})
+    public float step;
+
+    private WheelGeometry mGeometry;
+    /** 模拟一次来回拖动时每个move事件的偏移 */
+    private float[] mGestureOffsets;
+    /** 一次来回拖动经过的总偏移量和角度，都在范围之内 */
+    private float[] mTotalOffsets;
+    private float[] mDegrees;
+    private int mFrame;
+    /** 绘制时 drawLines 用的刻度端点 */
+    private CalibrationLines mLines;
+
+    @Setup
+    public void setUp() {
+        mGeometry = new WheelGeometry();
+        mGeometry.setRegion(-range, range);
+        mGeometry.setCalibrationStep(step, 10);
+        mGeometry.setBounds(width, width / 2);
+        mGestureOffsets = new float[256];
+        mTotalOffsets = new float[256];
+        mDegrees = new float[256];
+        for (int i = 0; i < mGestureOffsets.length; i++) {
+            mGestureOffsets[i] = (float)(width / 60.0 * Math.cos(i * Math.PI / 64));
+            double swing = 0.95 * Math.sin(i * Math.PI / 128);
+            mTotalOffsets[i] = (float)(width / 2.0 * swing);
+            mDegrees[i] = (float)(range * swing);
+        }
+        mLines = new CalibrationLines();
+    }
+
+    private float nextOffset() {
+        mFrame = (mFrame + 1) & (mGestureOffsets.length - 1);
+        return mGestureOffsets[mFrame];
+    }
+
+    private float nextTotalOffset() {
+        mFrame = (mFrame + 1) & (mTotalOffsets.length - 1);
+        return mTotalOffsets[mFrame];
+    }
+
+    private float nextDegree() {
+        mFrame = (mFrame + 1) & (mDegrees.length - 1);
+        return mDegrees[mFrame];
+    }
+
+    /** 一次完整的move：偏移量换算角度并更新可见刻度 */
+    @Benchmark
+    public float applyOffset() {
+        mGeometry.applyOffset(nextOffset());
+        return mGeometry.getCurrentDegree();
+    }
+
+    /** 只看偏移量到角度的换算 */
+    @Benchmark
+    public float offsetToDegree() {
+        return mGeometry.getDegreeByOffset(nextTotalOffset());
+    }
+
+    /** 只看角度到偏移量的换算 */
+    @Benchmark
+    public float degreeToOffset() {
+        return mGeometry.getOffsetByDegree(nextDegree());
+    }
+
+    /** 按范围内的角度重新计算可见刻度 */
+    @Benchmark
+    public int updateCalibrations() {
+        mGeometry.setDegree(nextDegree());
+        return mGeometry.getVisibleCount();
+    }
+
+    /** 拖动后填充刻度端点，即 calCalibrationLines 的纯计算部分 */
+    @Benchmark
+    public float[] calibrationEndpoints() {
+        mGeometry.applyOffset(nextOffset());
+        mLines.update(mGeometry, 10, 40, 6);
+        return mLines.getPoints();
+    }
+}